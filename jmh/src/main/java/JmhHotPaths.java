@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class JmhHotPaths implements bench.HotPaths {
+    private static final int FLEET_FLOORS = 100;
+    private static final int SUBMIT_FLOORS = 100;
+    private static final int SUBMIT_CARS = 16;
+    private static final int REQUEST_POOL = 1024;
+    private static final int JOURNAL_FLOORS = 100;
+    private static final int JOURNAL_ELEVATORS = 10;
+
+    private LogLevel previousLevel;
+    private LogOverflowPolicy previousPolicy;
+    private boolean sinkReplaced;
+
+    private ElevatorDispatcher dispatcher;
+    private PassengerRequest[] requests;
+    private int cursor;
+    private Elevator elevator;
+    private StopSet stopSet;
+    private StopPlanner planner;
+    private Path journalDirectory;
+
+    @Override
+    public void setUpFleet(int cars) {
+        quietLogger();
+        Random random = new Random(42);
+        List<Elevator> elevators = new ArrayList<>();
+        for (int i = 1; i <= cars; i++) {
+            Elevator car = new Elevator(i, FLEET_FLOORS, 8);
+            car.addTarget(random.nextInt(FLEET_FLOORS) + 1);
+            car.step();
+            elevators.add(car);
+        }
+        dispatcher = new ElevatorDispatcher(elevators);
+        requests = randomRequests(random, FLEET_FLOORS, REQUEST_POOL);
+    }
+
+    @Override
+    public int findBestElevator() {
+        PassengerRequest request = requests[cursor++ & (REQUEST_POOL - 1)];
+        return dispatcher.findBestElevator(request).getId();
+    }
+
+    @Override
+    public void setUpStops(int stops) {
+        quietLogger();
+        int floors = Math.max(4096, stops) * 2;
+        elevator = new Elevator(1, floors, 8);
+        stopSet = new StopSet(floors);
+        planner = new StopPlanner(floors);
+        Random random = new Random(7);
+        for (int i = 0; i < stops; i++) {
+            int floor = floors / 2 + random.nextInt(floors / 2) + 1;
+            elevator.addTarget(floor, Direction.DOWN);
+            stopSet.add(floor, Direction.DOWN);
+        }
+    }
+
+    @Override
+    public int nextFloor() {
+        return elevator.getNextFloor();
+    }
+
+    @Override
+    public int planRoute() {
+        return planner.plan(stopSet, 1, Direction.IDLE, false).length;
+    }
+
+    @Override
+    public void setUpSubmit(int count) {
+        quietLogger();
+        requests = randomRequests(new Random(11), SUBMIT_FLOORS, count);
+        resetSubmitFleet();
+    }
+
+    @Override
+    public void resetSubmitFleet() {
+        Random random = new Random(42);
+        int capacity = requests.length / SUBMIT_CARS * 2;
+        List<Elevator> elevators = new ArrayList<>();
+        for (int i = 1; i <= SUBMIT_CARS; i++) {
+            Elevator car = new Elevator(i, SUBMIT_FLOORS, capacity);
+            car.addTarget(random.nextInt(SUBMIT_FLOORS) + 1);
+            car.step();
+            elevators.add(car);
+        }
+        dispatcher = new ElevatorDispatcher(elevators);
+    }
+
+    @Override
+    public int submitAndDispatch() {
+        for (PassengerRequest request : requests) {
+            dispatcher.submitRequest(request);
+        }
+        dispatcher.dispatchPending();
+        return requests.length;
+    }
+
+    @Override
+    public void setUpJournal(int events) {
+        quietLogger();
+        try {
+            journalDirectory = Files.createTempDirectory("journal-bench");
+            long segmentSize = (events + 1024L) * RequestJournal.RECORD_SIZE;
+            try (RequestJournal journal = new RequestJournal(journalDirectory,
+                    RequestJournal.recover(journalDirectory, JOURNAL_ELEVATORS), segmentSize, RequestJournal.DEFAULT_COMMIT_INTERVAL_MS)) {
+                PassengerRequest[] requests = randomRequests(new Random(13), JOURNAL_FLOORS, events / 4);
+                for (int i = 0; i < requests.length; i++) {
+                    PassengerRequest request = requests[i];
+                    int car = i % JOURNAL_ELEVATORS + 1;
+                    journal.onRequestSubmitted(request, i);
+                    journal.onElevatorArrival(car, request.getFromFloor(), i);
+                    journal.onPassengerPickup(car, request, i);
+                    if (i % 1000 != 0) {
+                        journal.onPassengerDropOff(car, request, i);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long recoverJournal() {
+        try {
+            return RequestJournal.recover(journalDirectory, JOURNAL_ELEVATORS).getEvents();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void setUpLogger(boolean enabled) {
+        previousLevel = Logger.getLevel();
+        previousPolicy = Logger.getOverflowPolicy();
+        Logger.setSink(new LogSink() {
+            @Override
+            public void write(LogEvent event) {
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+        sinkReplaced = true;
+        Logger.setOverflowPolicy(LogOverflowPolicy.DROP);
+        Logger.setLevel(enabled ? LogLevel.INFO : LogLevel.OFF);
+    }
+
+    @Override
+    public void logArrival() {
+        Logger.logElevatorArrival(1, 5);
+    }
+
+    @Override
+    public void tearDown() {
+        if (sinkReplaced) {
+            Logger.flush();
+            Logger.setSink(new TextLogSink(System.out));
+            Logger.setOverflowPolicy(previousPolicy);
+            sinkReplaced = false;
+        }
+        if (previousLevel != null) {
+            Logger.setLevel(previousLevel);
+            previousLevel = null;
+        }
+        if (journalDirectory != null) {
+            deleteDirectory(journalDirectory);
+            journalDirectory = null;
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            System.out.println("Could not remove " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private void quietLogger() {
+        previousLevel = Logger.getLevel();
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    private static PassengerRequest[] randomRequests(Random random, int floors, int count) {
+        PassengerRequest[] requests = new PassengerRequest[count];
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(floors) + 1;
+            int to;
+            do {
+                to = random.nextInt(floors) + 1;
+            } while (to == from);
+            requests[i] = new PassengerRequest(from, to > from ? Direction.UP : Direction.DOWN, to);
+        }
+        return requests;
+    }
+}
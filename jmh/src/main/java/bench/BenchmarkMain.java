@@ -0,0 +1,120 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {
+    private static final double DEFAULT_REGRESSION_THRESHOLD = 0.10;
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        Path baseline = null;
+        Path save = null;
+        double threshold = DEFAULT_REGRESSION_THRESHOLD;
+        List<String> jmhArgs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--baseline") && i + 1 < args.length) {
+                baseline = Path.of(args[++i]);
+            } else if (args[i].equals("--save") && i + 1 < args.length) {
+                save = Path.of(args[++i]);
+            } else if (args[i].equals("--threshold") && i + 1 < args.length) {
+                threshold = Double.parseDouble(args[++i]);
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions jmhOptions;
+        try {
+            jmhOptions = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(jmhOptions);
+        if (jmhOptions.getIncludes().isEmpty()) {
+            options.include(HotPathBenchmark.class.getName());
+        }
+
+        Map<String, Double> results = new LinkedHashMap<>();
+        Map<String, String> units = new LinkedHashMap<>();
+        Collection<RunResult> runs = new Runner(options.build()).run();
+        for (RunResult run : runs) {
+            String key = keyOf(run.getParams());
+            results.put(key, run.getPrimaryResult().getScore());
+            units.put(key, run.getPrimaryResult().getScoreUnit());
+        }
+
+        if (save != null) {
+            save(results, save);
+        }
+        if (baseline != null && !compare(results, units, baseline, threshold)) {
+            System.exit(1);
+        }
+    }
+
+    private static String keyOf(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+        if (params.getParamsKeys().isEmpty()) {
+            return key.toString();
+        }
+        key.append('[');
+        boolean first = true;
+        for (String name : params.getParamsKeys()) {
+            if (!first) {
+                key.append(';');
+            }
+            key.append(params.getParam(name));
+            first = false;
+        }
+        return key.append(']').toString();
+    }
+
+    private static void save(Map<String, Double> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            lines.add(entry.getKey() + "," + entry.getValue());
+        }
+        Files.write(file, lines);
+        System.out.println("Saved baseline to " + file);
+    }
+
+    private static boolean compare(Map<String, Double> results, Map<String, String> units, Path file, double threshold)
+            throws IOException {
+        boolean passed = true;
+        for (String line : Files.readAllLines(file)) {
+            String[] parts = line.split(",");
+            Double current = results.get(parts[0]);
+            if (parts.length != 2 || current == null) {
+                continue;
+            }
+
+            double previous = Double.parseDouble(parts[1]);
+            double change = (current - previous) / previous;
+            if (change > threshold) {
+                System.out.printf("REGRESSION %-28s %10.1f -> %10.1f %s (%+.1f%%)%n", parts[0], previous, current,
+                        units.get(parts[0]), change * 100);
+                passed = false;
+            }
+        }
+        System.out.println(passed ? "No regressions above " + (int) (threshold * 100) + "%" : "Benchmark regressions detected");
+        return passed;
+    }
+}
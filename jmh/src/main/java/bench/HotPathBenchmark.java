@@ -0,0 +1,157 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HotPathBenchmark {
+    static final int SUBMIT_BATCH = 1024;
+
+    @State(Scope.Thread)
+    public static class Fleet {
+        @Param({"3", "10", "100", "1000"})
+        public int cars;
+
+        HotPaths paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = HotPaths.create();
+            paths.setUpFleet(cars);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            paths.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Route {
+        @Param({"1", "16", "256", "4096"})
+        public int stops;
+
+        HotPaths paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = HotPaths.create();
+            paths.setUpStops(stops);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            paths.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Submit {
+        HotPaths paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = HotPaths.create();
+            paths.setUpSubmit(SUBMIT_BATCH);
+        }
+
+        @Setup(Level.Invocation)
+        public void resetFleet() {
+            paths.resetSubmitFleet();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            paths.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Journal {
+        @Param({"1000000"})
+        public int events;
+
+        HotPaths paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = HotPaths.create();
+            paths.setUpJournal(events);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            paths.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Logging {
+        @Param({"false", "true"})
+        public boolean enabled;
+
+        HotPaths paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = HotPaths.create();
+            paths.setUpLogger(enabled);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            paths.tearDown();
+        }
+    }
+
+    @Benchmark
+    public void findBestElevator(Fleet fleet, Blackhole blackhole) {
+        blackhole.consume(fleet.paths.findBestElevator());
+    }
+
+    @Benchmark
+    public void getNextFloor(Route route, Blackhole blackhole) {
+        blackhole.consume(route.paths.nextFloor());
+    }
+
+    @Benchmark
+    public void planRoute(Route route, Blackhole blackhole) {
+        blackhole.consume(route.paths.planRoute());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBMIT_BATCH)
+    public void submitRequest(Submit submit, Blackhole blackhole) {
+        blackhole.consume(submit.paths.submitAndDispatch());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void journalRecovery(Journal journal, Blackhole blackhole) {
+        blackhole.consume(journal.paths.recoverJournal());
+    }
+
+    @Benchmark
+    public void logger(Logging logging) {
+        logging.paths.logArrival();
+    }
+}
@@ -0,0 +1,37 @@
+package bench;
+
+public interface HotPaths {
+    void setUpFleet(int cars);
+
+    int findBestElevator();
+
+    void setUpStops(int stops);
+
+    int nextFloor();
+
+    int planRoute();
+
+    void setUpSubmit(int requests);
+
+    void resetSubmitFleet();
+
+    int submitAndDispatch();
+
+    void setUpJournal(int events);
+
+    long recoverJournal();
+
+    void setUpLogger(boolean enabled);
+
+    void logArrival();
+
+    void tearDown();
+
+    static HotPaths create() {
+        try {
+            return (HotPaths) Class.forName("JmhHotPaths").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("JmhHotPaths is not on the benchmark classpath", e);
+        }
+    }
+}
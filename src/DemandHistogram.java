@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+public class DemandHistogram {
+    public static final long DAY_MILLIS = 24 * 3_600_000L;
+    public static final long DEFAULT_BUCKET_MILLIS = 15 * 60_000L;
+    public static final long DEFAULT_RECENT_HALF_LIFE_MS = 5 * 60_000L;
+    public static final long DEFAULT_DAILY_HALF_LIFE_MS = 7 * DAY_MILLIS;
+
+    private static final double REBASE_THRESHOLD = 1e100;
+
+    private final int maxFloor;
+    private final long bucketMillis;
+    private final int buckets;
+    private final double recentDecayPerMs;
+    private final double dailyDecayPerMs;
+    private final double[] recent;
+    private long recentEpoch;
+    private final double[] daily;
+    private final long[] dailyEpochs;
+
+    public DemandHistogram(int maxFloor) {
+        this(maxFloor, DEFAULT_BUCKET_MILLIS, DEFAULT_RECENT_HALF_LIFE_MS, DEFAULT_DAILY_HALF_LIFE_MS);
+    }
+
+    public DemandHistogram(int maxFloor, long bucketMillis, long recentHalfLifeMillis, long dailyHalfLifeMillis) {
+        if (bucketMillis <= 0 || DAY_MILLIS % bucketMillis != 0) {
+            throw new IllegalArgumentException("Bucket width must divide a day: " + bucketMillis);
+        }
+        this.maxFloor = maxFloor;
+        this.bucketMillis = bucketMillis;
+        this.buckets = (int) (DAY_MILLIS / bucketMillis);
+        this.recentDecayPerMs = Math.log(2) / recentHalfLifeMillis;
+        this.dailyDecayPerMs = Math.log(2) / dailyHalfLifeMillis;
+        this.recent = new double[maxFloor + 1];
+        this.daily = new double[buckets * (maxFloor + 1)];
+        this.dailyEpochs = new long[buckets];
+    }
+
+    public void record(int floor, long timeMillis) {
+        if (floor < 1 || floor > maxFloor) {
+            return;
+        }
+
+        double recentWeight = Math.exp((timeMillis - recentEpoch) * recentDecayPerMs);
+        if (recentWeight > REBASE_THRESHOLD) {
+            rebase(recent, 0, recentWeight);
+            recentEpoch = timeMillis;
+            recentWeight = 1;
+        }
+        recent[floor] += recentWeight;
+
+        int bucket = bucketOf(timeMillis);
+        int offset = bucket * (maxFloor + 1);
+        double dailyWeight = Math.exp((timeMillis - dailyEpochs[bucket]) * dailyDecayPerMs);
+        if (dailyWeight > REBASE_THRESHOLD) {
+            rebase(daily, offset, dailyWeight);
+            dailyEpochs[bucket] = timeMillis;
+            dailyWeight = 1;
+        }
+        daily[offset + floor] += dailyWeight;
+    }
+
+    public double forecast(long timeMillis, long lookaheadMillis, double[] out) {
+        Arrays.fill(out, 0);
+        double recentScale = Math.exp(-(timeMillis - recentEpoch) * recentDecayPerMs);
+        double recentMass = sum(recent, 0) * recentScale;
+
+        int bucket = bucketOf(timeMillis + lookaheadMillis);
+        int offset = bucket * (maxFloor + 1);
+        double dailyScale = Math.exp(-(timeMillis - dailyEpochs[bucket]) * dailyDecayPerMs);
+        double dailyMass = sum(daily, offset) * dailyScale;
+
+        double total = recentMass + dailyMass;
+        if (total <= 0) {
+            return 0;
+        }
+        double recentShare = (dailyMass > 0) ? 0.5 : 1.0;
+        double dailyShare = (recentMass > 0) ? 0.5 : 1.0;
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            if (recentMass > 0) {
+                out[floor] += recentShare * recent[floor] * recentScale / recentMass;
+            }
+            if (dailyMass > 0) {
+                out[floor] += dailyShare * daily[offset + floor] * dailyScale / dailyMass;
+            }
+        }
+        return total;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    private int bucketOf(long timeMillis) {
+        return (int) (Math.floorMod(timeMillis, DAY_MILLIS) / bucketMillis);
+    }
+
+    private void rebase(double[] values, int offset, double weight) {
+        for (int floor = 0; floor <= maxFloor; floor++) {
+            values[offset + floor] /= weight;
+        }
+    }
+
+    private double sum(double[] values, int offset) {
+        double total = 0;
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            total += values[offset + floor];
+        }
+        return total;
+    }
+}
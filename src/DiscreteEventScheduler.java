@@ -0,0 +1,88 @@
+import java.util.PriorityQueue;
+
+public class DiscreteEventScheduler implements SimulationClock {
+    private final PriorityQueue<ScheduledEvent> events;
+    private long currentTime;
+    private long sequence;
+    private boolean dispatching;
+
+    public DiscreteEventScheduler() {
+        this(0);
+    }
+
+    public DiscreteEventScheduler(long startTimeMillis) {
+        this.events = new PriorityQueue<>();
+        this.currentTime = startTimeMillis;
+        this.sequence = 0;
+        this.dispatching = false;
+    }
+
+    public void schedule(long delayMillis, Runnable action) {
+        scheduleAt(currentTime + Math.max(0, delayMillis), action);
+    }
+
+    public void scheduleAt(long timeMillis, Runnable action) {
+        events.add(new ScheduledEvent(Math.max(timeMillis, currentTime), sequence++, action));
+    }
+
+    public void runUntil(long timeMillis) {
+        if (dispatching) {
+            throw new IllegalStateException("Scheduler cannot be advanced from inside an event");
+        }
+
+        dispatching = true;
+        try {
+            while (!events.isEmpty() && events.peek().time <= timeMillis) {
+                ScheduledEvent event = events.poll();
+                currentTime = event.time;
+                event.action.run();
+            }
+            currentTime = Math.max(currentTime, timeMillis);
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    public void runFor(long durationMillis) {
+        runUntil(currentTime + durationMillis);
+    }
+
+    public int getPendingEventCount() {
+        return events.size();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTime;
+    }
+
+    @Override
+    public long currentTimeNanos() {
+        return currentTime * 1_000_000L;
+    }
+
+    @Override
+    public void sleep(long millis) {
+        runFor(millis);
+    }
+
+    private static final class ScheduledEvent implements Comparable<ScheduledEvent> {
+        private final long time;
+        private final long sequence;
+        private final Runnable action;
+
+        private ScheduledEvent(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(ScheduledEvent other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
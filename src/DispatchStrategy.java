@@ -0,0 +1,30 @@
+public interface DispatchStrategy {
+    long cost(ElevatorState state, PassengerRequest request);
+
+    long queuedCallPenalty(ElevatorState state);
+
+    String getName();
+
+    static DispatchStrategy named(String name, int floors, int elevators) {
+        int colon = name.indexOf(':');
+        String baseName = (colon < 0) ? name : name.substring(0, colon);
+        if (baseName.toLowerCase().endsWith("-energy")) {
+            double millisPerWh = (colon < 0) ? EnergyAwareStrategy.DEFAULT_MILLIS_PER_WH : Double.parseDouble(name.substring(colon + 1));
+            DispatchStrategy base = named(baseName.substring(0, baseName.length() - "-energy".length()), floors, elevators);
+            return new EnergyAwareStrategy(base, millisPerWh);
+        }
+
+        switch (name.toLowerCase()) {
+            case "nearest":
+                return new NearestCarStrategy();
+            case "eta":
+                return new EtaDispatchStrategy();
+            case "eta-grouped":
+                return new EtaDispatchStrategy(true);
+            case "zoning":
+                return new ZoningDispatchStrategy(floors, Math.max(1, Math.min(floors, elevators / 2)));
+            default:
+                throw new IllegalArgumentException("Unknown dispatch strategy: " + name);
+        }
+    }
+}
@@ -1,214 +1,659 @@
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class Elevator implements Runnable {
+    static final long FLOOR_TRAVEL_TIME_MS = 1000;
+    static final long DOOR_OPEN_TIME_MS = 2000;
+    static final long DOOR_CLOSE_TIME_MS = 1000;
+    static final long IDLE_POLL_TIME_MS = 100;
+
+    private enum Phase {
+        READY,
+        MOVING,
+        DOORS_OPEN,
+        DOORS_CLOSING
+    }
+
     private final int id;
     private final int maxFloor;
     private final int maxCapacity;
+    private final SimulationClock clock;
+    private final ElevatorEventListener events;
+    private final TravelTable travel;
     private int currentFloor;
+    private int runStartFloor;
     private int currentPassengers;
+    private int assignedPassengers;
     private Direction direction;
     private ElevatorStatus status;
-    private final Set<Integer> targetFloors;
+    private Phase phase;
+    private final StopSet stops;
+    private final StopPlanner planner;
+    private final List<List<PassengerRequest>> pickups;
+    private final List<List<PassengerRequest>> dropOffs;
     private final ReentrantLock lock;
+    private int[] targetSnapshot;
+    private boolean routeStale;
+    private boolean plannedFull;
+    private ElevatorIndex index;
+    private ParkingPlanner parking;
+    private HallCallRegistry hallCalls;
+    private final List<PassengerRequest> leftBehind;
+    private int parkingFloor;
+    private volatile ElevatorState state;
     private volatile boolean running;
+    private volatile boolean faulted;
+    private volatile long faultTime;
+    private volatile long heartbeatDeadline;
 
     public Elevator(int id, int maxFloor, int maxCapacity) {
+        this(id, maxFloor, maxCapacity, new RealTimeClock());
+    }
+
+    public Elevator(int id, int maxFloor, int maxCapacity, SimulationClock clock) {
+        this(id, maxFloor, maxCapacity, clock, new ElevatorEventBus());
+    }
+
+    public Elevator(int id, int maxFloor, int maxCapacity, SimulationClock clock, ElevatorEventListener events) {
+        this(id, maxFloor, maxCapacity, clock, events, KinematicProfile.LEGACY);
+    }
+
+    public Elevator(int id, int maxFloor, int maxCapacity, SimulationClock clock, ElevatorEventListener events,
+                    KinematicProfile profile) {
         this.id = id;
         this.maxFloor = maxFloor;
         this.maxCapacity = maxCapacity;
+        this.clock = clock;
+        this.events = events;
+        this.travel = TravelTable.of(profile, maxFloor, maxCapacity);
         this.currentFloor = 1;
+        this.runStartFloor = 1;
         this.currentPassengers = 0;
+        this.assignedPassengers = 0;
         this.direction = Direction.IDLE;
         this.status = ElevatorStatus.STOPPED;
-        this.targetFloors = new TreeSet<>();
+        this.phase = Phase.READY;
+        this.stops = new StopSet(maxFloor);
+        this.planner = new StopPlanner(maxFloor);
+        this.pickups = new ArrayList<>(maxFloor + 1);
+        this.dropOffs = new ArrayList<>(maxFloor + 1);
+        for (int floor = 0; floor <= maxFloor; floor++) {
+            pickups.add(new ArrayList<>(0));
+            dropOffs.add(new ArrayList<>(0));
+        }
+        this.leftBehind = new ArrayList<>();
         this.lock = new ReentrantLock();
         this.running = true;
+        this.targetSnapshot = new int[0];
+        this.routeStale = true;
+        this.parkingFloor = -1;
+        this.faultTime = -1;
+        this.heartbeatDeadline = clock.currentTimeMillis() + IDLE_POLL_TIME_MS;
+        this.state = new ElevatorState(id, currentFloor, direction, status, currentPassengers, assignedPassengers, maxCapacity,
+                targetSnapshot, new int[0], travel);
     }
 
     public int getId() {
         return id;
     }
 
+    public ElevatorState getState() {
+        return state;
+    }
+
     public int getCurrentFloor() {
-        lock.lock();
-        try {
-            return currentFloor;
-        } finally {
-            lock.unlock();
-        }
+        return state.getCurrentFloor();
     }
 
     public Direction getDirection() {
+        return state.getDirection();
+    }
+
+    public ElevatorStatus getStatus() {
+        return state.getStatus();
+    }
+
+    public int getCurrentPassengers() {
+        return state.getCurrentPassengers();
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public KinematicProfile getProfile() {
+        return travel.getProfile();
+    }
+
+    public boolean hasCapacity() {
+        return state.hasCapacity();
+    }
+
+    public void assign(PassengerRequest request) {
+        boolean outOfService;
         lock.lock();
         try {
-            return direction;
+            outOfService = status == ElevatorStatus.OUT_OF_SERVICE && hallCalls != null;
+            if (!outOfService) {
+                request.markAssigned(id, clock.currentTimeMillis());
+                pickups.get(request.getFromFloor()).add(request);
+                assignedPassengers++;
+                if (stops.add(request.getFromFloor(), request.getDirection())) {
+                    stopAdded(request.getFromFloor(), request.getDirection());
+                    Logger.logTargetAdded(id, request.getFromFloor());
+                }
+            }
         } finally {
+            publishState();
             lock.unlock();
         }
+
+        if (outOfService) {
+            hallCalls.reassign(this, List.of(request));
+        }
     }
 
-    public ElevatorStatus getStatus() {
+    public void addTarget(int floor) {
+        addTarget(floor, Direction.IDLE);
+    }
+
+    public void addTarget(int floor, Direction hallCallDirection) {
         lock.lock();
         try {
-            return status;
+            if (floor >= 1 && floor <= maxFloor && stops.add(floor, hallCallDirection)) {
+                stopAdded(floor, hallCallDirection);
+                Logger.logTargetAdded(id, floor);
+            }
         } finally {
+            publishState();
             lock.unlock();
         }
     }
 
-    public int getCurrentPassengers() {
+    void attachIndex(ElevatorIndex index) {
         lock.lock();
         try {
-            return currentPassengers;
+            this.index = index;
+            index.update(this, state);
         } finally {
             lock.unlock();
         }
     }
 
-    public int getMaxCapacity() {
-        return maxCapacity;
-    }
-
-    public boolean hasCapacity() {
+    void attachHallCalls(HallCallRegistry hallCalls) {
         lock.lock();
         try {
-            return currentPassengers < maxCapacity;
+            this.hallCalls = hallCalls;
         } finally {
             lock.unlock();
         }
     }
 
-    public void addTarget(int floor) {
+    void attachParking(ParkingPlanner parking) {
         lock.lock();
         try {
-            if (floor >= 1 && floor <= maxFloor) {
-                targetFloors.add(floor);
-                Logger.logSystemEvent("Elevator " + id + " added target floor " + floor);
-            }
+            this.parking = parking;
         } finally {
             lock.unlock();
         }
     }
 
+    int getMaxFloor() {
+        return maxFloor;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
     @Override
     public void run() {
-        Logger.logSystemEvent("Elevator " + id + " started (capacity: " + maxCapacity + " passengers)");
+        Logger.logElevatorStarted(id, maxCapacity);
 
         while (running) {
             try {
-                processNextTarget();
-                Thread.sleep(100);
+                clock.sleep(step());
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
+            } catch (RuntimeException e) {
+                Logger.logSystemEvent("Elevator " + id + " controller crashed: " + e);
+                injectFault();
             }
         }
 
-        Logger.logSystemEvent("Elevator " + id + " stopped");
+        Logger.logElevatorStopped(id);
     }
 
-    private void processNextTarget() throws InterruptedException {
+    public long step() {
+        if (faulted) {
+            return IDLE_POLL_TIME_MS;
+        }
+
+        long delay;
         lock.lock();
         try {
-            if (targetFloors.isEmpty()) {
-                if (direction != Direction.IDLE) {
-                    direction = Direction.IDLE;
-                    status = ElevatorStatus.STOPPED;
-                    Logger.logElevatorIdle(id, currentFloor);
-                }
-                return;
+            switch (phase) {
+                case MOVING:
+                    delay = advanceOneFloor();
+                    break;
+                case DOORS_OPEN:
+                    delay = closeDoors();
+                    break;
+                case DOORS_CLOSING:
+                    delay = finishStop();
+                    break;
+                default:
+                    delay = processNextTarget();
+                    break;
             }
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+
+        if (!leftBehind.isEmpty()) {
+            List<PassengerRequest> released = new ArrayList<>(leftBehind);
+            leftBehind.clear();
+            hallCalls.reassign(this, released);
+        }
+        heartbeatDeadline = clock.currentTimeMillis() + delay;
+        return delay;
+    }
 
-            int nextFloor = getNextFloor();
-            moveToFloor(nextFloor);
+    public void injectFault() {
+        if (!faulted) {
+            faultTime = clock.currentTimeMillis();
+            faulted = true;
+            Logger.logSystemEvent("Fault injected into elevator " + id + " at floor " + state.getCurrentFloor());
+        }
+    }
+
+    public boolean isFaulted() {
+        return faulted;
+    }
+
+    public long getFaultTime() {
+        return faultTime;
+    }
 
+    public long getHeartbeatDeadline() {
+        return heartbeatDeadline;
+    }
+
+    public int takeOutOfService() {
+        List<PassengerRequest> released = new ArrayList<>();
+        lock.lock();
+        try {
+            if (status == ElevatorStatus.OUT_OF_SERVICE) {
+                return 0;
+            }
+            faulted = true;
+            status = ElevatorStatus.OUT_OF_SERVICE;
+            direction = Direction.IDLE;
+            phase = Phase.READY;
+            parkingFloor = -1;
+
+            stops.clearAll();
+            for (int floor = 1; floor <= maxFloor; floor++) {
+                released.addAll(pickups.get(floor));
+                pickups.get(floor).clear();
+                if (!dropOffs.get(floor).isEmpty()) {
+                    stops.add(floor, Direction.IDLE);
+                }
+            }
+            assignedPassengers = 0;
+            stopsChanged();
+            Logger.logSystemEvent("Elevator " + id + " out of service at floor " + currentFloor + ", "
+                    + released.size() + " waiting passenger(s) to reassign, " + currentPassengers + " on board");
         } finally {
+            publishState();
             lock.unlock();
         }
+
+        if (hallCalls != null && !released.isEmpty()) {
+            hallCalls.reassign(this, released);
+        }
+        return released.size();
     }
 
-    private int getNextFloor() {
-        if (direction == Direction.UP || direction == Direction.IDLE) {
-            for (int floor : targetFloors) {
-                if (floor >= currentFloor) {
-                    return floor;
-                }
+    public void restoreService() {
+        lock.lock();
+        try {
+            if (!faulted) {
+                return;
             }
+            faulted = false;
+            faultTime = -1;
+            heartbeatDeadline = clock.currentTimeMillis() + IDLE_POLL_TIME_MS;
+            if (status == ElevatorStatus.OUT_OF_SERVICE) {
+                status = ElevatorStatus.STOPPED;
+                direction = Direction.IDLE;
+                phase = Phase.READY;
+                routeStale = true;
+            }
+            Logger.logSystemEvent("Elevator " + id + " back in service at floor " + currentFloor);
+        } finally {
+            publishState();
+            lock.unlock();
         }
+    }
 
-        if (direction == Direction.DOWN || direction == Direction.IDLE) {
-            int maxBelow = -1;
-            for (int floor : targetFloors) {
-                if (floor <= currentFloor) {
-                    maxBelow = Math.max(maxBelow, floor);
-                }
+    private void publishState() {
+        if (targetSnapshot == null) {
+            targetSnapshot = stops.toArray();
+        }
+        ElevatorState previous = state;
+        state = new ElevatorState(id, currentFloor, direction, status, currentPassengers, assignedPassengers, maxCapacity,
+                targetSnapshot, plannedRoute(), travel);
+        if (previous != null && (previous.getCurrentFloor() != currentFloor || previous.getDirection() != direction
+                || previous.getStatus() != status || previous.getCurrentPassengers() != currentPassengers
+                || previous.getAssignedPassengers() != assignedPassengers || previous.targetFloorsView() != targetSnapshot)) {
+            events.onElevatorStateChange(state, clock.currentTimeMillis());
+        }
+        if (index != null) {
+            index.update(this, state);
+        }
+    }
+
+    private long processNextTarget() {
+        if (stops.isEmpty()) {
+            int floor = (parking != null && currentPassengers == 0 && assignedPassengers == 0)
+                    ? parking.parkingFloor(id, clock.currentTimeMillis()) : -1;
+            if (floor != -1 && floor != currentFloor) {
+                parkingFloor = floor;
+                return moveToFloor(floor);
             }
-            if (maxBelow != -1) {
-                return maxBelow;
+            if (direction != Direction.IDLE) {
+                direction = Direction.IDLE;
+                status = ElevatorStatus.STOPPED;
+                Logger.logElevatorIdle(id, currentFloor);
             }
+            return IDLE_POLL_TIME_MS;
+        }
+
+        int nextFloor = getNextFloor();
+        return moveToFloor(nextFloor);
+    }
+
+    int getNextFloor() {
+        int next = StopPlanner.firstStop(stops, currentFloor, direction, isFull());
+        return (next == -1) ? parkingFloor : next;
+    }
+
+    private int[] plannedRoute() {
+        boolean full = isFull();
+        if (routeStale || plannedFull != full) {
+            planner.plan(stops, currentFloor, direction, full);
+            routeStale = false;
+            plannedFull = full;
         }
+        return planner.route();
+    }
 
-        return targetFloors.iterator().next();
+    private void stopAdded(int floor, Direction hallCallDirection) {
+        targetSnapshot = null;
+        if (!routeStale && (plannedFull || isFull() || !planner.insert(floor, hallCallDirection, currentFloor, direction))) {
+            routeStale = true;
+        }
     }
 
-    private void moveToFloor(int targetFloor) throws InterruptedException {
+    private void stopsChanged() {
+        targetSnapshot = null;
+        routeStale = true;
+    }
+
+    private long moveToFloor(int targetFloor) {
         if (currentFloor == targetFloor) {
-            arriveAtFloor(targetFloor);
-            return;
+            return arriveAtFloor(targetFloor);
         }
 
         direction = (targetFloor > currentFloor) ? Direction.UP : Direction.DOWN;
         status = ElevatorStatus.MOVING;
+        phase = Phase.MOVING;
 
         Logger.logElevatorMovement(id, direction, currentFloor, targetFloor);
+        runStartFloor = currentFloor;
+        return nextSegment(targetFloor);
+    }
 
-        while (currentFloor != targetFloor) {
-            Thread.sleep(1000);
-            currentFloor += (direction == Direction.UP) ? 1 : -1;
+    private long nextSegment(int targetFloor) {
+        int covered = Math.abs(currentFloor - runStartFloor);
+        int run = Math.max(covered + 1, Math.abs(targetFloor - runStartFloor));
+        return travel.segmentMillis(run, covered);
+    }
 
-            if (targetFloors.contains(currentFloor)) {
-                arriveAtFloor(currentFloor);
+    private void endRun() {
+        if (currentFloor == runStartFloor) {
+            return;
+        }
+        double energyWh = travel.runEnergyWh(runStartFloor, currentFloor, currentPassengers);
+        events.onElevatorRun(id, runStartFloor, currentFloor, currentPassengers, energyWh, clock.currentTimeMillis());
+        runStartFloor = currentFloor;
+    }
+
+    private long advanceOneFloor() {
+        if (planner.startsAt(currentFloor)) {
+            routeStale = true;
+        }
+        currentFloor += (direction == Direction.UP) ? 1 : -1;
+
+        if (parkingFloor != -1) {
+            if (stops.isEmpty()) {
+                return (currentFloor == parkingFloor) ? finishParking() : nextSegment(parkingFloor);
+            }
+            parkingFloor = -1;
+            int nextStop = getNextFloor();
+            boolean ahead = (direction == Direction.UP) ? nextStop > currentFloor : nextStop < currentFloor;
+            if (nextStop != currentFloor && !ahead) {
+                endRun();
+                status = ElevatorStatus.STOPPED;
+                phase = Phase.READY;
+                return 0;
             }
         }
+
+        int nextStop = getNextFloor();
+        if (nextStop == -1 || nextStop == currentFloor) {
+            endRun();
+            return arriveAtFloor(currentFloor);
+        }
+
+        return nextSegment(nextStop);
     }
 
-    private void arriveAtFloor(int floor) throws InterruptedException {
+    private long finishParking() {
+        endRun();
+        parkingFloor = -1;
+        direction = Direction.IDLE;
+        status = ElevatorStatus.STOPPED;
+        phase = Phase.READY;
+        Logger.logElevatorIdle(id, currentFloor);
+        return IDLE_POLL_TIME_MS;
+    }
+
+    private long arriveAtFloor(int floor) {
         status = ElevatorStatus.STOPPED;
         Logger.logElevatorArrival(id, floor);
 
         status = ElevatorStatus.DOORS_OPEN;
+        phase = Phase.DOORS_OPEN;
         Logger.logDoorsOpen(id, floor);
+        events.onElevatorArrival(id, floor, clock.currentTimeMillis());
 
-        simulatePassengerExchange(floor);
+        exchangePassengers(floor);
 
-        Thread.sleep(2000);
+        return travel.getProfile().getDoorOpenMillis();
+    }
 
-        targetFloors.remove(floor);
+    private long closeDoors() {
+        if (boardPassengers(currentFloor) > 0) {
+            Logger.logElevatorLoad(id, currentPassengers, maxCapacity);
+        }
+
+        List<PassengerRequest> waiting = pickups.get(currentFloor);
+        if (hallCalls != null) {
+            if (isFull() && !waiting.isEmpty()) {
+                Logger.logSystemEvent("Elevator " + id + " full at floor " + currentFloor + ", releasing "
+                        + waiting.size() + " waiting passenger(s) for reassignment");
+                assignedPassengers -= waiting.size();
+                leftBehind.addAll(waiting);
+                waiting.clear();
+            }
+            hallCalls.served(this, currentFloor, waiting);
+        }
+
+        stops.clear(currentFloor, direction);
+        if (direction == Direction.UP && stops.nextAtOrAbove(currentFloor + 1) == -1) {
+            stops.clear(currentFloor, Direction.DOWN);
+        } else if (direction == Direction.DOWN && stops.nextAtOrBelow(currentFloor - 1) == -1) {
+            stops.clear(currentFloor, Direction.UP);
+        }
+        targetSnapshot = null;
+        if (isFull() || !planner.advance(currentFloor)) {
+            routeStale = true;
+        } else {
+            plannedFull = false;
+        }
+        for (PassengerRequest request : waiting) {
+            if (stops.add(currentFloor, request.getDirection())) {
+                stopAdded(currentFloor, request.getDirection());
+            }
+        }
+
+        Logger.logDoorsClose(id, currentFloor);
+        phase = Phase.DOORS_CLOSING;
+        return travel.getProfile().getDoorCloseMillis();
+    }
+
+    private long finishStop() {
+        int nextStop = getNextFloor();
+        boolean continuing = (direction == Direction.UP) ? nextStop > currentFloor
+                : direction == Direction.DOWN && nextStop != -1 && nextStop < currentFloor;
+        if (continuing) {
+            status = ElevatorStatus.MOVING;
+            phase = Phase.MOVING;
+            runStartFloor = currentFloor;
+            return nextSegment(nextStop);
+        }
 
-        Logger.logDoorsClose(id, floor);
-        Thread.sleep(1000);
         status = ElevatorStatus.STOPPED;
+        phase = Phase.READY;
+        return IDLE_POLL_TIME_MS;
     }
 
-    private void simulatePassengerExchange(int floor) {
-        int passengersExiting = Math.min(currentPassengers, 2);
+    private void exchangePassengers(int floor) {
+        long now = clock.currentTimeMillis();
+        List<PassengerRequest> leaving = dropOffs.get(floor);
+        int passengersExiting = leaving.size();
+
+        for (PassengerRequest request : leaving) {
+            request.markDroppedOff(now);
+            events.onPassengerDropOff(id, request, now);
+        }
+        leaving.clear();
         currentPassengers -= passengersExiting;
 
         if (passengersExiting > 0) {
-            Logger.logSystemEvent("Elevator " + id + " at floor " + floor + ": " + passengersExiting + " passenger(s) exited");
+            Logger.logPassengersExited(id, floor, passengersExiting);
         }
 
-        int availableSpace = maxCapacity - currentPassengers;
-        int passengersEntering = Math.min(availableSpace, 2);
-        currentPassengers += passengersEntering;
+        boardPassengers(floor);
+
+        Logger.logElevatorLoad(id, currentPassengers, maxCapacity);
+    }
+
+    private int boardPassengers(int floor) {
+        List<PassengerRequest> waiting = pickups.get(floor);
+        if (waiting.isEmpty()) {
+            return 0;
+        }
+
+        Direction boardingDirection = chooseBoardingDirection(floor, waiting);
+        long now = clock.currentTimeMillis();
+        int passengersEntering = 0;
+
+        for (Iterator<PassengerRequest> it = waiting.iterator(); it.hasNext() && !isFull(); ) {
+            PassengerRequest request = it.next();
+            if (request.getDirection() != boardingDirection) {
+                continue;
+            }
+
+            it.remove();
+            assignedPassengers--;
+            currentPassengers++;
+            passengersEntering++;
+            request.markPickedUp(now);
+            dropOffs.get(request.getToFloor()).add(request);
+            if (stops.add(request.getToFloor(), Direction.IDLE)) {
+                stopAdded(request.getToFloor(), Direction.IDLE);
+            }
+            events.onPassengerPickup(id, request, now);
+        }
 
         if (passengersEntering > 0) {
-            Logger.logSystemEvent("Elevator " + id + " at floor " + floor + ": " + passengersEntering + " passenger(s) entered");
+            Logger.logPassengersEntered(id, floor, passengersEntering);
+        }
+        return passengersEntering;
+    }
+
+    private Direction chooseBoardingDirection(int floor, List<PassengerRequest> waiting) {
+        if (direction != Direction.IDLE) {
+            boolean stopsAhead = (direction == Direction.UP)
+                    ? stops.nextAtOrAbove(floor + 1) != -1
+                    : stops.nextAtOrBelow(floor - 1) != -1;
+            if (stopsAhead) {
+                return direction;
+            }
+            for (PassengerRequest request : waiting) {
+                if (request.getDirection() == direction) {
+                    return direction;
+                }
+            }
         }
+        return waiting.get(0).getDirection();
+    }
 
-        Logger.logSystemEvent("Elevator " + id + " capacity: " + currentPassengers + "/" + maxCapacity);
+    private boolean isFull() {
+        return currentPassengers >= maxCapacity;
+    }
+
+    public void restore(int floor, List<PassengerRequest> onBoard) {
+        lock.lock();
+        try {
+            currentFloor = Math.max(1, Math.min(maxFloor, floor));
+            runStartFloor = currentFloor;
+            for (PassengerRequest request : onBoard) {
+                if (request.getToFloor() < 1 || request.getToFloor() > maxFloor) {
+                    continue;
+                }
+                dropOffs.get(request.getToFloor()).add(request);
+                stops.add(request.getToFloor(), Direction.IDLE);
+                currentPassengers++;
+            }
+            stopsChanged();
+            if (!onBoard.isEmpty()) {
+                Logger.logSystemEvent("Elevator " + id + " restored at floor " + currentFloor + " with "
+                        + onBoard.size() + " passenger(s) on board");
+            }
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+    }
+
+    public void collectUnserved(List<PassengerRequest> waiting, List<PassengerRequest> onBoard) {
+        lock.lock();
+        try {
+            for (int floor = 1; floor <= maxFloor; floor++) {
+                waiting.addAll(pickups.get(floor));
+                onBoard.addAll(dropOffs.get(floor));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void shutdown() {
@@ -1,109 +1,521 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ElevatorDispatcher implements Runnable {
+    private static final int STEAL_THRESHOLD = 2;
+    private static final long STEAL_POLL_TIME_MS = 50;
+    private static final int CANDIDATE_LIMIT = 8;
+    private static final int LINEAR_SCAN_LIMIT = 16;
+    private static final long JOIN_TOLERANCE = 0;
+
     private final List<Elevator> elevators;
-    private final BlockingQueue<PassengerRequest> requestQueue;
+    private final ElevatorIndex index;
+    private final HallCallRegistry hallCalls;
+    private final RequestQueue requestQueue;
+    private final DispatchStrategy strategy;
+    private final SimulationClock clock;
+    private final ElevatorEventListener events;
+    private final boolean batchDispatch;
+    private final List<PassengerRequest> batch;
+    private final AtomicBoolean dispatchScheduled;
+    private final ArrayDeque<DeferredRequest> deferred;
+    private final AtomicBoolean drainClaimed;
+    private final CountDownLatch drainDone;
+    private final List<PassengerRequest> drainUnassigned;
+    private int drainedCount;
+    private volatile Thread worker;
+    private volatile Runnable wakeHandler;
+    private volatile List<ElevatorDispatcher> peers;
+    private volatile int shardId;
     private volatile boolean running;
 
     public ElevatorDispatcher(List<Elevator> elevators) {
+        this(elevators, new NearestCarStrategy(), false);
+    }
+
+    public ElevatorDispatcher(List<Elevator> elevators, DispatchStrategy strategy, boolean batchDispatch) {
+        this(elevators, strategy, batchDispatch, new RealTimeClock(), new ElevatorEventBus());
+    }
+
+    public ElevatorDispatcher(List<Elevator> elevators, DispatchStrategy strategy, boolean batchDispatch,
+                              SimulationClock clock, ElevatorEventListener events) {
+        this(elevators, strategy, batchDispatch, clock, events, new RequestQueue(maxFloorOf(elevators)));
+    }
+
+    public ElevatorDispatcher(List<Elevator> elevators, DispatchStrategy strategy, boolean batchDispatch,
+                              SimulationClock clock, ElevatorEventListener events, RequestQueue requestQueue) {
         this.elevators = elevators;
-        this.requestQueue = new LinkedBlockingQueue<>();
+        this.index = createIndex(elevators);
+        this.hallCalls = new HallCallRegistry(maxFloorOf(elevators));
+        for (Elevator elevator : elevators) {
+            elevator.attachHallCalls(hallCalls);
+        }
+        this.strategy = strategy;
+        this.clock = clock;
+        this.events = events;
+        this.requestQueue = requestQueue;
+        this.batchDispatch = batchDispatch;
+        this.batch = new ArrayList<>();
+        this.dispatchScheduled = new AtomicBoolean();
+        this.deferred = new ArrayDeque<>();
+        this.drainClaimed = new AtomicBoolean();
+        this.drainDone = new CountDownLatch(1);
+        this.drainUnassigned = new ArrayList<>();
+        this.peers = List.of();
+        this.shardId = 0;
         this.running = true;
     }
 
-    public void submitRequest(PassengerRequest request) {
-        try {
-            requestQueue.put(request);
-            Logger.logRequest(request);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private static int maxFloorOf(List<Elevator> elevators) {
+        int maxFloor = 1;
+        for (Elevator elevator : elevators) {
+            maxFloor = Math.max(maxFloor, elevator.getMaxFloor());
+        }
+        return maxFloor;
+    }
+
+    private static ElevatorIndex createIndex(List<Elevator> elevators) {
+        ElevatorIndex index = new ElevatorIndex(maxFloorOf(elevators));
+        for (Elevator elevator : elevators) {
+            elevator.attachIndex(index);
+        }
+        return index;
+    }
+
+    public void bindReassignment() {
+        hallCalls.setReassignHandler(this::reassign);
+    }
+
+    public void joinShardGroup(int shardId, List<ElevatorDispatcher> group) {
+        List<ElevatorDispatcher> others = new ArrayList<>(group);
+        others.remove(this);
+        this.shardId = shardId;
+        this.peers = List.copyOf(others);
+    }
+
+    public void setWakeHandler(Runnable wakeHandler) {
+        this.wakeHandler = wakeHandler;
+    }
+
+    public int getShardId() {
+        return shardId;
+    }
+
+    public SubmitResult submitRequest(PassengerRequest request) {
+        Logger.logRequest(request);
+        events.onRequestSubmitted(request, clock.currentTimeMillis());
+        return settle(request, requestQueue.offer(request));
+    }
+
+    public SubmitResult submitOrDefer(PassengerRequest request, long deadlineMillis) {
+        Logger.logRequest(request);
+        events.onRequestSubmitted(request, clock.currentTimeMillis());
+
+        SubmitResult result = (deferred.isEmpty() || requestQueue.isClosed()) ? requestQueue.tryOffer(request) : SubmitResult.DEFERRED;
+        if (result == SubmitResult.DEFERRED) {
+            Logger.logSystemEvent("Request queue full (" + requestQueue.getPolicy() + "), deferring " + request);
+            deferred.add(new DeferredRequest(request, deadlineMillis));
+            return result;
+        }
+        return settle(request, result);
+    }
+
+    public int admitDeferred() {
+        int admitted = 0;
+        while (!deferred.isEmpty()) {
+            SubmitResult result = requestQueue.tryOffer(deferred.peek().request);
+            if (result == SubmitResult.DEFERRED) {
+                break;
+            }
+            if (settle(deferred.poll().request, result).isAccepted()) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    public void expireDeferred(long timeMillis) {
+        while (!deferred.isEmpty() && deferred.peek().deadlineMillis <= timeMillis) {
+            settle(deferred.poll().request, requestQueue.timeOut());
+        }
+    }
+
+    private SubmitResult settle(PassengerRequest request, SubmitResult result) {
+        if (result == SubmitResult.CLOSED) {
+            Logger.logSystemEvent(describe() + " closed, refusing " + request);
+            events.onRequestRejected(request, result, clock.currentTimeMillis());
+        } else if (!result.isAccepted()) {
+            Logger.logSystemEvent("Request queue full (" + requestQueue.getPolicy() + "), " + result + ": " + request);
+            events.onRequestRejected(request, result, clock.currentTimeMillis());
         }
+        return result;
     }
 
     @Override
     public void run() {
-        Logger.logSystemEvent("Dispatcher started");
+        worker = Thread.currentThread();
+        Logger.logSystemEvent(describe() + " started (strategy: " + strategy.getName() + ")");
 
-        while (running || !requestQueue.isEmpty()) {
+        while (running) {
             try {
-                PassengerRequest request = requestQueue.take();
-                processRequest(request);
+                PassengerRequest request = peers.isEmpty() ? requestQueue.take() : nextOwnOrStolenRequest();
+                if (request == null) {
+                    continue;
+                }
+                if (batchDispatch) {
+                    batch.add(request);
+                    requestQueue.drainTo(batch);
+                    processBatch(batch);
+                    batch.clear();
+                } else {
+                    processRequest(request);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
             }
         }
 
-        Logger.logSystemEvent("Dispatcher stopped");
+        finalDrain();
+        Logger.logSystemEvent(describe() + " stopped");
     }
 
-    private void processRequest(PassengerRequest request) {
-        Elevator bestElevator = findBestElevator(request);
+    private String describe() {
+        return peers.isEmpty() ? "Dispatcher" : "Dispatcher for shard " + shardId + " (" + elevators.size() + " cars)";
+    }
+
+    private PassengerRequest nextOwnOrStolenRequest() throws InterruptedException {
+        PassengerRequest request = requestQueue.poll(STEAL_POLL_TIME_MS, TimeUnit.MILLISECONDS);
+        if (request == null && hasSpareCapacity()) {
+            request = stealFromPeers();
+        }
+        return request;
+    }
+
+    private PassengerRequest stealFromPeers() {
+        ElevatorDispatcher victim = null;
+        int deepestQueue = STEAL_THRESHOLD - 1;
+        for (ElevatorDispatcher peer : peers) {
+            int depth = peer.getQueueDepth();
+            if (depth > deepestQueue) {
+                deepestQueue = depth;
+                victim = peer;
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+
+        PassengerRequest request = victim.requestQueue.poll();
+        if (request != null) {
+            Logger.logSystemEvent("Shard " + shardId + " stole " + request + " from shard " + victim.shardId);
+        }
+        return request;
+    }
+
+    private boolean handOffToPeer(PassengerRequest request) {
+        if (request.getHandOffs() > 0) {
+            return false;
+        }
+        for (ElevatorDispatcher peer : peers) {
+            if (!peer.hasSpareCapacity()) {
+                continue;
+            }
+            request.markHandedOff();
+            if (peer.requestQueue.tryOffer(request, false).isAccepted()) {
+                Logger.logSystemEvent("Shard " + shardId + " saturated, handing " + request + " to shard " + peer.shardId);
+                peer.wake();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void wake() {
+        Runnable handler = wakeHandler;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    public boolean hasSpareCapacity() {
+        for (Elevator elevator : elevators) {
+            if (elevator.getState().hasCapacity()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isBatchDispatch() {
+        return batchDispatch;
+    }
+
+    public boolean claimPendingDispatch() {
+        return dispatchScheduled.compareAndSet(false, true);
+    }
+
+    public void dispatchPending() {
+        dispatchScheduled.set(false);
+        if (batchDispatch) {
+            requestQueue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+                batch.clear();
+            }
+            return;
+        }
+
+        PassengerRequest request;
+        while ((request = requestQueue.poll()) != null) {
+            processRequest(request);
+        }
+    }
+
+    public int awaitDrain(List<PassengerRequest> unassigned, long timeoutMillis) throws InterruptedException {
+        if (worker == null) {
+            finalDrain();
+        }
+        if (!drainDone.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            Logger.logSystemEvent(describe() + " did not finish its final drain within " + timeoutMillis + " ms");
+            return 0;
+        }
+        unassigned.addAll(drainUnassigned);
+        return drainedCount;
+    }
+
+    private void finalDrain() {
+        if (drainClaimed.compareAndSet(false, true)) {
+            drainedCount = drain(drainUnassigned);
+            drainDone.countDown();
+        }
+    }
+
+    private int drain(List<PassengerRequest> unassigned) {
+        int drained = 0;
+        PassengerRequest request;
+        while ((request = requestQueue.poll()) != null) {
+            drained++;
+            if (!processRequest(request)) {
+                unassigned.add(request);
+            }
+        }
+        return drained;
+    }
+
+    public int getQueueDepth() {
+        return requestQueue.size();
+    }
+
+    public long getRejectedCount() {
+        return requestQueue.getRejectedCount();
+    }
+
+    public long getCoalescedCount() {
+        return requestQueue.getCoalescedCount();
+    }
+
+    public HallCallRegistry getHallCalls() {
+        return hallCalls;
+    }
+
+    private boolean processRequest(PassengerRequest request) {
+        long startNanos = System.nanoTime();
+        Elevator bestElevator = joinOrFindBest(request);
+        events.onDispatchDecision(1, System.nanoTime() - startNanos);
+
+        if (bestElevator != null && !peers.isEmpty() && !bestElevator.getState().hasCapacity() && handOffToPeer(request)) {
+            return true;
+        }
 
         if (bestElevator != null) {
             Logger.logElevatorAssignment(bestElevator.getId(), request);
-            bestElevator.addTarget(request.getFromFloor());
-            bestElevator.addTarget(request.getToFloor());
-        } else {
+            events.onRequestAssigned(bestElevator.getId(), request, clock.currentTimeMillis());
+            hallCalls.register(request, bestElevator);
+            bestElevator.assign(request);
+            return true;
+        }
+        Logger.logSystemEvent("No available elevator found for request " + request);
+        events.onRequestUnassigned(request, clock.currentTimeMillis());
+        return false;
+    }
+
+    private void reassign(Elevator from, PassengerRequest request) {
+        Elevator bestElevator = findBestElevator(request);
+        if (from.getState().isInService() && (bestElevator == null || !bestElevator.getState().hasCapacity())) {
+            bestElevator = from;
+        }
+        if (bestElevator == null) {
             Logger.logSystemEvent("No available elevator found for request " + request);
+            events.onRequestUnassigned(request, clock.currentTimeMillis());
+            return;
+        }
+
+        if (bestElevator != from) {
+            Logger.logElevatorAssignment(bestElevator.getId(), request);
+            events.onRequestReassigned(from.getId(), bestElevator.getId(), request, clock.currentTimeMillis());
         }
+        hallCalls.register(request, bestElevator);
+        bestElevator.assign(request);
     }
 
-    private Elevator findBestElevator(PassengerRequest request) {
-        Elevator bestElevator = null;
-        int minDistance = Integer.MAX_VALUE;
+    private void processBatch(List<PassengerRequest> requests) {
+        if (requests.size() == 1) {
+            processRequest(requests.get(0));
+            return;
+        }
 
-        for (Elevator elevator : elevators) {
-            if (!elevator.hasCapacity()) {
+        long startNanos = System.nanoTime();
+        Map<Integer, List<PassengerRequest>> pending = new LinkedHashMap<>();
+        for (PassengerRequest request : requests) {
+            Elevator joined = hallCalls.assignedCar(request);
+            if (joined != null) {
+                Logger.logElevatorAssignment(joined.getId(), request);
+                events.onRequestAssigned(joined.getId(), request, clock.currentTimeMillis());
+                hallCalls.register(request, joined);
+                joined.assign(request);
                 continue;
             }
+            int key = request.getFromFloor() * 2 + (request.getDirection() == Direction.UP ? 0 : 1);
+            pending.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+        }
+        if (pending.isEmpty()) {
+            events.onDispatchDecision(requests.size(), System.nanoTime() - startNanos);
+            return;
+        }
 
-            int distance = calculateDistance(elevator, request);
-
-            if (distance < minDistance) {
-                minDistance = distance;
-                bestElevator = elevator;
+        List<Elevator> candidates = new ArrayList<>();
+        for (List<PassengerRequest> group : pending.values()) {
+            index.candidates(group.get(0), CANDIDATE_LIMIT, true, candidates);
+        }
+        if (candidates.isEmpty() && !peers.isEmpty()) {
+            for (List<PassengerRequest> group : pending.values()) {
+                for (PassengerRequest request : group) {
+                    processRequest(request);
+                }
             }
+            return;
+        }
+        if (candidates.isEmpty()) {
+            for (List<PassengerRequest> group : pending.values()) {
+                index.candidates(group.get(0), CANDIDATE_LIMIT, false, candidates);
+            }
+        }
+        List<ElevatorState> states = new ArrayList<>(candidates.size());
+        for (Elevator elevator : candidates) {
+            states.add(elevator.getState());
+        }
+        if (candidates.isEmpty()) {
+            for (List<PassengerRequest> group : pending.values()) {
+                for (PassengerRequest request : group) {
+                    Logger.logSystemEvent("No available elevator found for request " + request);
+                    events.onRequestUnassigned(request, clock.currentTimeMillis());
+                }
+            }
+            return;
         }
 
-        if (bestElevator == null) {
-            for (Elevator elevator : elevators) {
-                int distance = calculateDistance(elevator, request);
+        List<List<PassengerRequest>> groups = new ArrayList<>(pending.values());
+        int slotsPerElevator = (groups.size() + candidates.size() - 1) / candidates.size();
+        long[][] cost = new long[groups.size()][candidates.size() * slotsPerElevator];
 
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    bestElevator = elevator;
+        for (int g = 0; g < groups.size(); g++) {
+            PassengerRequest hallCall = groups.get(g).get(0);
+            for (int e = 0; e < candidates.size(); e++) {
+                long baseCost = strategy.cost(states.get(e), hallCall);
+                long penalty = strategy.queuedCallPenalty(states.get(e));
+                for (int slot = 0; slot < slotsPerElevator; slot++) {
+                    cost[g][e * slotsPerElevator + slot] = baseCost + slot * penalty;
                 }
             }
         }
 
-        return bestElevator;
+        int[] assignment = HungarianAlgorithm.solve(cost);
+        events.onDispatchDecision(requests.size(), System.nanoTime() - startNanos);
+        Logger.logSystemEvent("Batch dispatch: " + requests.size() + " request(s), " + groups.size() + " distinct hall call(s)");
+
+        for (int g = 0; g < groups.size(); g++) {
+            Elevator elevator = candidates.get(assignment[g] / slotsPerElevator);
+            List<PassengerRequest> group = groups.get(g);
+            for (PassengerRequest request : group) {
+                Logger.logElevatorAssignment(elevator.getId(), request);
+                events.onRequestAssigned(elevator.getId(), request, clock.currentTimeMillis());
+                hallCalls.register(request, elevator);
+                elevator.assign(request);
+            }
+        }
     }
 
-    private int calculateDistance(Elevator elevator, PassengerRequest request) {
-        int currentFloor = elevator.getCurrentFloor();
-        Direction elevatorDirection = elevator.getDirection();
-        int requestFloor = request.getFromFloor();
-        Direction requestDirection = request.getDirection();
+    private Elevator joinOrFindBest(PassengerRequest request) {
+        Elevator bestElevator = findBestElevator(request);
+        Elevator assigned = hallCalls.assignedCar(request);
+        if (assigned == null || assigned == bestElevator || bestElevator == null) {
+            return (assigned != null) ? assigned : bestElevator;
+        }
+        long joinCost = strategy.cost(assigned.getState(), request);
+        return (joinCost <= strategy.cost(bestElevator.getState(), request) + JOIN_TOLERANCE) ? assigned : bestElevator;
+    }
 
-        if (elevatorDirection == Direction.IDLE) {
-            return Math.abs(currentFloor - requestFloor);
+    Elevator findBestElevator(PassengerRequest request) {
+        if (elevators.size() <= LINEAR_SCAN_LIMIT) {
+            Elevator bestElevator = cheapest(elevators, request, true);
+            return (bestElevator != null) ? bestElevator : cheapest(elevators, request, false);
         }
 
-        if (elevatorDirection == requestDirection) {
-            if (elevatorDirection == Direction.UP && requestFloor >= currentFloor) {
-                return requestFloor - currentFloor;
-            } else if (elevatorDirection == Direction.DOWN && requestFloor <= currentFloor) {
-                return currentFloor - requestFloor;
+        List<Elevator> candidates = new ArrayList<>(CANDIDATE_LIMIT * 3);
+        index.candidates(request, CANDIDATE_LIMIT, true, candidates);
+        Elevator bestElevator = cheapest(candidates, request, true);
+        if (bestElevator == null) {
+            candidates.clear();
+            index.candidates(request, CANDIDATE_LIMIT, false, candidates);
+            bestElevator = cheapest(candidates, request, false);
+        }
+        return bestElevator;
+    }
+
+    private Elevator cheapest(List<Elevator> candidates, PassengerRequest request, boolean requireCapacity) {
+        Elevator bestElevator = null;
+        long minCost = Long.MAX_VALUE;
+
+        for (Elevator elevator : candidates) {
+            ElevatorState state = elevator.getState();
+            if (!state.isInService() || (requireCapacity && !state.hasCapacity())) {
+                continue;
+            }
+
+            long cost = strategy.cost(state, request);
+
+            if (bestElevator == null || cost < minCost || (cost == minCost && elevator.getId() < bestElevator.getId())) {
+                minCost = cost;
+                bestElevator = elevator;
             }
         }
 
-        return Math.abs(currentFloor - requestFloor) + 100;
+        return bestElevator;
     }
 
     public void shutdown() {
         running = false;
+        requestQueue.close();
+        DeferredRequest waiting;
+        while ((waiting = deferred.poll()) != null) {
+            settle(waiting.request, SubmitResult.CLOSED);
+        }
+    }
+
+    private static final class DeferredRequest {
+        private final PassengerRequest request;
+        private final long deadlineMillis;
+
+        private DeferredRequest(PassengerRequest request, long deadlineMillis) {
+            this.request = request;
+            this.deadlineMillis = deadlineMillis;
+        }
     }
 }
\ No newline at end of file
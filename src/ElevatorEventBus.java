@@ -0,0 +1,102 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ElevatorEventBus implements ElevatorEventListener {
+    private final List<ElevatorEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(ElevatorEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ElevatorEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onRequestSubmitted(request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onRequestAssigned(int elevatorId, PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onRequestAssigned(elevatorId, request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onRequestUnassigned(request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onRequestReassigned(int fromElevatorId, int toElevatorId, PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onRequestReassigned(fromElevatorId, toElevatorId, request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onRequestRejected(request, result, timeMillis);
+        }
+    }
+
+    @Override
+    public void onDispatchDecision(int requests, long latencyNanos) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onDispatchDecision(requests, latencyNanos);
+        }
+    }
+
+    @Override
+    public void onElevatorArrival(int elevatorId, int floor, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onElevatorArrival(elevatorId, floor, timeMillis);
+        }
+    }
+
+    @Override
+    public void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onPassengerPickup(elevatorId, request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onPassengerDropOff(elevatorId, request, timeMillis);
+        }
+    }
+
+    @Override
+    public void onElevatorStateChange(ElevatorState state, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onElevatorStateChange(state, timeMillis);
+        }
+    }
+
+    @Override
+    public void onElevatorRun(int elevatorId, int fromFloor, int toFloor, int passengers, double energyWh, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onElevatorRun(elevatorId, fromFloor, toFloor, passengers, energyWh, timeMillis);
+        }
+    }
+
+    @Override
+    public void onElevatorOutOfService(int elevatorId, int requestsMoved, long detectionMillis, long timeMillis) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onElevatorOutOfService(elevatorId, requestsMoved, detectionMillis, timeMillis);
+        }
+    }
+}
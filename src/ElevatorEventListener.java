@@ -0,0 +1,37 @@
+public interface ElevatorEventListener {
+    default void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+    }
+
+    default void onRequestAssigned(int elevatorId, PassengerRequest request, long timeMillis) {
+    }
+
+    default void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+    }
+
+    default void onRequestReassigned(int fromElevatorId, int toElevatorId, PassengerRequest request, long timeMillis) {
+    }
+
+    default void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+    }
+
+    default void onDispatchDecision(int requests, long latencyNanos) {
+    }
+
+    default void onElevatorArrival(int elevatorId, int floor, long timeMillis) {
+    }
+
+    default void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+    }
+
+    default void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+    }
+
+    default void onElevatorStateChange(ElevatorState state, long timeMillis) {
+    }
+
+    default void onElevatorRun(int elevatorId, int fromFloor, int toFloor, int passengers, double energyWh, long timeMillis) {
+    }
+
+    default void onElevatorOutOfService(int elevatorId, int requestsMoved, long detectionMillis, long timeMillis) {
+    }
+}
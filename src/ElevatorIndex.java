@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ElevatorIndex {
+    private static final int UP = 0;
+    private static final int DOWN = 1;
+    private static final int IDLE = 2;
+    private static final int KINDS = 3;
+    private static final int ALL_KINDS = (1 << UP) | (1 << DOWN) | (1 << IDLE);
+
+    private final int maxFloor;
+    private final List<List<Elevator>> buckets;
+    private final int[] availableCounts;
+    private final long[][] occupiedBits;
+    private final long[][] availableBits;
+    private final Map<Elevator, ElevatorState> indexed;
+    private final ReentrantLock lock;
+
+    public ElevatorIndex(int maxFloor) {
+        this.maxFloor = maxFloor;
+        this.buckets = new ArrayList<>(KINDS * (maxFloor + 1));
+        for (int i = 0; i < KINDS * (maxFloor + 1); i++) {
+            buckets.add(new ArrayList<>(0));
+        }
+        this.availableCounts = new int[KINDS * (maxFloor + 1)];
+        int words = (maxFloor >> 6) + 1;
+        this.occupiedBits = new long[KINDS][words];
+        this.availableBits = new long[KINDS][words];
+        this.indexed = new IdentityHashMap<>();
+        this.lock = new ReentrantLock();
+    }
+
+    public void update(Elevator elevator, ElevatorState state) {
+        lock.lock();
+        try {
+            ElevatorState previous = indexed.get(elevator);
+            if (previous != null) {
+                if (previous.getCurrentFloor() == state.getCurrentFloor()
+                        && previous.getDirection() == state.getDirection()
+                        && previous.hasCapacity() == state.hasCapacity()
+                        && previous.isInService() == state.isInService()) {
+                    indexed.put(elevator, state);
+                    return;
+                }
+                if (previous.isInService()) {
+                    remove(elevator, previous);
+                }
+            }
+            if (state.isInService()) {
+                insert(elevator, state);
+            }
+            indexed.put(elevator, state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void nearest(int floor, int k, boolean requireCapacity, Collection<Elevator> out) {
+        lock.lock();
+        try {
+            collect(floor, ALL_KINDS, true, true, k, requireCapacity, out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void candidates(PassengerRequest request, int k, boolean requireCapacity, Collection<Elevator> out) {
+        lock.lock();
+        try {
+            int floor = clamp(request.getFromFloor());
+            if (request.getDirection() == Direction.UP) {
+                collect(floor, 1 << UP, false, true, k, requireCapacity, out);
+            } else if (request.getDirection() == Direction.DOWN) {
+                collect(floor, 1 << DOWN, true, false, k, requireCapacity, out);
+            }
+            collect(floor, 1 << IDLE, true, true, k, requireCapacity, out);
+            collect(floor, ALL_KINDS, true, true, k, requireCapacity, out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void collect(int floor, int kinds, boolean searchUp, boolean searchDown, int k,
+                         boolean requireCapacity, Collection<Elevator> out) {
+        long[][] bits = requireCapacity ? availableBits : occupiedBits;
+        int above = searchUp ? nextSetBit(bits, kinds, floor) : -1;
+        int below = searchDown ? previousSetBit(bits, kinds, searchUp ? floor - 1 : floor) : -1;
+        int found = 0;
+
+        while (found < k && (above != -1 || below != -1)) {
+            int next;
+            if (below == -1 || (above != -1 && above - floor <= floor - below)) {
+                next = above;
+                above = nextSetBit(bits, kinds, above + 1);
+            } else {
+                next = below;
+                below = previousSetBit(bits, kinds, below - 1);
+            }
+
+            for (int kind = 0; kind < KINDS && found < k; kind++) {
+                if ((kinds & (1 << kind)) == 0) {
+                    continue;
+                }
+                for (Elevator elevator : buckets.get(slot(kind, next))) {
+                    if (found == k) {
+                        break;
+                    }
+                    if (requireCapacity && !indexed.get(elevator).hasCapacity()) {
+                        continue;
+                    }
+                    if (!out.contains(elevator)) {
+                        out.add(elevator);
+                    }
+                    found++;
+                }
+            }
+        }
+    }
+
+    private void insert(Elevator elevator, ElevatorState state) {
+        int kind = kindOf(state.getDirection());
+        int floor = clamp(state.getCurrentFloor());
+        int slot = slot(kind, floor);
+
+        buckets.get(slot).add(elevator);
+        occupiedBits[kind][floor >> 6] |= 1L << floor;
+        if (state.hasCapacity() && availableCounts[slot]++ == 0) {
+            availableBits[kind][floor >> 6] |= 1L << floor;
+        }
+    }
+
+    private void remove(Elevator elevator, ElevatorState state) {
+        int kind = kindOf(state.getDirection());
+        int floor = clamp(state.getCurrentFloor());
+        int slot = slot(kind, floor);
+
+        List<Elevator> bucket = buckets.get(slot);
+        bucket.remove(elevator);
+        if (bucket.isEmpty()) {
+            occupiedBits[kind][floor >> 6] &= ~(1L << floor);
+        }
+        if (state.hasCapacity() && --availableCounts[slot] == 0) {
+            availableBits[kind][floor >> 6] &= ~(1L << floor);
+        }
+    }
+
+    private int slot(int kind, int floor) {
+        return kind * (maxFloor + 1) + floor;
+    }
+
+    private int clamp(int floor) {
+        return Math.max(0, Math.min(maxFloor, floor));
+    }
+
+    private static int kindOf(Direction direction) {
+        switch (direction) {
+            case UP:
+                return UP;
+            case DOWN:
+                return DOWN;
+            default:
+                return IDLE;
+        }
+    }
+
+    private int nextSetBit(long[][] bits, int kinds, int from) {
+        if (from > maxFloor) {
+            return -1;
+        }
+        int index = from >> 6;
+        long word = merged(bits, kinds, index) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int floor = (index << 6) + Long.numberOfTrailingZeros(word);
+                return (floor <= maxFloor) ? floor : -1;
+            }
+            if (++index >= bits[0].length) {
+                return -1;
+            }
+            word = merged(bits, kinds, index);
+        }
+    }
+
+    private int previousSetBit(long[][] bits, int kinds, int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int index = from >> 6;
+        long word = merged(bits, kinds, index) & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--index < 0) {
+                return -1;
+            }
+            word = merged(bits, kinds, index);
+        }
+    }
+
+    private static long merged(long[][] bits, int kinds, int index) {
+        long word = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            if ((kinds & (1 << kind)) != 0) {
+                word |= bits[kind][index];
+            }
+        }
+        return word;
+    }
+}
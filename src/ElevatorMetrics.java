@@ -0,0 +1,144 @@
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ElevatorMetrics implements ElevatorEventListener {
+    public static final String REQUESTS_SUBMITTED = "elevator_requests_submitted_total";
+    public static final String REQUESTS_ASSIGNED = "elevator_requests_assigned_total";
+    public static final String REQUESTS_UNASSIGNED = "elevator_requests_unassigned_total";
+    public static final String REQUESTS_REJECTED = "elevator_requests_rejected_total";
+    public static final String REQUESTS_COALESCED = "elevator_requests_coalesced_total";
+    public static final String REQUESTS_REASSIGNED = "elevator_requests_reassigned_total";
+    public static final String HALL_CALLS_MERGED = "elevator_hall_calls_merged_total";
+    public static final String HALL_CALLS_ACTIVE = "elevator_hall_calls_active";
+    public static final String CARS_OUT_OF_SERVICE = "elevator_cars_out_of_service";
+    public static final String FAILOVERS = "elevator_failovers_total";
+    public static final String FAILOVER_DETECTION = "elevator_failover_detection_ms";
+    public static final String STOPS_SERVED = "elevator_stops_served_total";
+    public static final String QUEUE_DEPTH = "elevator_dispatch_queue_depth";
+    public static final String CAR_LOAD = "elevator_car_load";
+    public static final String DISPATCH_LATENCY = "elevator_dispatch_latency_ns";
+    public static final String WAIT_TIME = "elevator_hall_call_wait_ms";
+    public static final String JOURNEY_TIME = "elevator_journey_time_ms";
+
+    private final MetricsRegistry registry;
+    private final LongAdder submitted;
+    private final LongAdder assigned;
+    private final LongAdder unassigned;
+    private final LongAdder rejected;
+    private final LongAdder reassigned;
+    private final LongAdder stopsServed;
+    private final LatencyHistogram dispatchLatency;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram journeyTime;
+    private final LatencyHistogram failoverDetection;
+    private final LongAdder failovers;
+
+    public ElevatorMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        this.submitted = registry.counter(REQUESTS_SUBMITTED);
+        this.assigned = registry.counter(REQUESTS_ASSIGNED);
+        this.unassigned = registry.counter(REQUESTS_UNASSIGNED);
+        this.rejected = registry.counter(REQUESTS_REJECTED);
+        this.reassigned = registry.counter(REQUESTS_REASSIGNED);
+        this.stopsServed = registry.counter(STOPS_SERVED);
+        this.dispatchLatency = registry.histogram(DISPATCH_LATENCY);
+        this.waitTime = registry.histogram(WAIT_TIME);
+        this.journeyTime = registry.histogram(JOURNEY_TIME);
+        this.failoverDetection = registry.histogram(FAILOVER_DETECTION);
+        this.failovers = registry.counter(FAILOVERS);
+    }
+
+    public void bind(List<ElevatorDispatcher> dispatchers, List<Elevator> elevators) {
+        registry.gauge(QUEUE_DEPTH, () -> {
+            long depth = 0;
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                depth += dispatcher.getQueueDepth();
+            }
+            return depth;
+        });
+        registry.counter(REQUESTS_COALESCED, () -> {
+            long coalesced = 0;
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                coalesced += dispatcher.getCoalescedCount();
+            }
+            return coalesced;
+        });
+        registry.counter(HALL_CALLS_MERGED, () -> {
+            long merged = 0;
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                merged += dispatcher.getHallCalls().getMergedCount();
+            }
+            return merged;
+        });
+        registry.gauge(HALL_CALLS_ACTIVE, () -> {
+            long active = 0;
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                active += dispatcher.getHallCalls().getActiveCalls();
+            }
+            return active;
+        });
+        if (dispatchers.size() > 1) {
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                registry.gauge(QUEUE_DEPTH + "{shard=\"" + dispatcher.getShardId() + "\"}", dispatcher::getQueueDepth);
+            }
+        }
+        for (Elevator elevator : elevators) {
+            registry.gauge(CAR_LOAD + "{elevator=\"" + elevator.getId() + "\"}", () -> elevator.getState().getCurrentPassengers());
+        }
+    }
+
+    public void bindHealth(HealthMonitor healthMonitor) {
+        registry.gauge(CARS_OUT_OF_SERVICE, healthMonitor::getOutOfServiceCount);
+    }
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        submitted.increment();
+    }
+
+    @Override
+    public void onRequestAssigned(int elevatorId, PassengerRequest request, long timeMillis) {
+        assigned.increment();
+    }
+
+    @Override
+    public void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+        unassigned.increment();
+    }
+
+    @Override
+    public void onRequestReassigned(int fromElevatorId, int toElevatorId, PassengerRequest request, long timeMillis) {
+        reassigned.increment();
+    }
+
+    @Override
+    public void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+        rejected.increment();
+    }
+
+    @Override
+    public void onElevatorArrival(int elevatorId, int floor, long timeMillis) {
+        stopsServed.increment();
+    }
+
+    @Override
+    public void onDispatchDecision(int requests, long latencyNanos) {
+        dispatchLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+        waitTime.record(timeMillis - request.getTimestamp());
+    }
+
+    @Override
+    public void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+        journeyTime.record(timeMillis - request.getTimestamp());
+    }
+
+    @Override
+    public void onElevatorOutOfService(int elevatorId, int requestsMoved, long detectionMillis, long timeMillis) {
+        failovers.increment();
+        failoverDetection.record(detectionMillis);
+    }
+}
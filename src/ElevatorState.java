@@ -0,0 +1,103 @@
+public final class ElevatorState {
+    private final int elevatorId;
+    private final int currentFloor;
+    private final Direction direction;
+    private final ElevatorStatus status;
+    private final int currentPassengers;
+    private final int assignedPassengers;
+    private final int maxCapacity;
+    private final int[] targetFloors;
+    private final int[] plannedRoute;
+    private final TravelTable travelTable;
+
+    public ElevatorState(int elevatorId, int currentFloor, Direction direction, ElevatorStatus status,
+                         int currentPassengers, int assignedPassengers, int maxCapacity, int[] targetFloors,
+                         int[] plannedRoute, TravelTable travelTable) {
+        this.elevatorId = elevatorId;
+        this.currentFloor = currentFloor;
+        this.direction = direction;
+        this.status = status;
+        this.currentPassengers = currentPassengers;
+        this.assignedPassengers = assignedPassengers;
+        this.maxCapacity = maxCapacity;
+        this.targetFloors = targetFloors;
+        this.plannedRoute = plannedRoute;
+        this.travelTable = travelTable;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public int getCurrentFloor() {
+        return currentFloor;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public ElevatorStatus getStatus() {
+        return status;
+    }
+
+    public int getCurrentPassengers() {
+        return currentPassengers;
+    }
+
+    public int getAssignedPassengers() {
+        return assignedPassengers;
+    }
+
+    public int getCommittedLoad() {
+        return currentPassengers + assignedPassengers;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public int getPendingStops() {
+        return targetFloors.length;
+    }
+
+    public int[] getTargetFloors() {
+        return targetFloors.clone();
+    }
+
+    int[] targetFloorsView() {
+        return targetFloors;
+    }
+
+    public int[] getPlannedRoute() {
+        return plannedRoute.clone();
+    }
+
+    int[] plannedRouteView() {
+        return plannedRoute;
+    }
+
+    public int getNextPlannedStop() {
+        return (plannedRoute.length == 0) ? -1 : plannedRoute[0];
+    }
+
+    public TravelTable getTravelTable() {
+        return travelTable;
+    }
+
+    public boolean isInService() {
+        return status != ElevatorStatus.OUT_OF_SERVICE;
+    }
+
+    public boolean hasCapacity() {
+        return status != ElevatorStatus.OUT_OF_SERVICE && getCommittedLoad() < maxCapacity;
+    }
+
+    @Override
+    public String toString() {
+        return "ElevatorState{id=" + elevatorId + ", floor=" + currentFloor + ", dir=" + direction
+                + ", status=" + status + ", passengers=" + currentPassengers + "/" + maxCapacity
+                + ", assigned=" + assignedPassengers
+                + ", stops=" + targetFloors.length + "}";
+    }
+}
@@ -1,5 +1,6 @@
 public enum ElevatorStatus {
     MOVING,
     STOPPED,
-    DOORS_OPEN
+    DOORS_OPEN,
+    OUT_OF_SERVICE
 }
\ No newline at end of file
@@ -1,15 +1,43 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
 
 public class ElevatorSystem {
     private static final int DEFAULT_CAPACITY = 8;
+    private static final long THREAD_STOP_TIMEOUT_MS = 2000;
+    private static final long DRAIN_POLL_TIME_MS = 20;
+    private static final long SIMULATED_DRAIN_STEP_MS = 1000;
+    private static final long JOURNAL_SYNC_TIMEOUT_MS = 1000;
 
     private final List<Elevator> elevators;
-    private final ElevatorDispatcher dispatcher;
+    private final List<ElevatorDispatcher> dispatchers;
+    private final ShardRouter router;
     private final ExecutorService executorService;
+    private final SimulationClock clock;
+    private final DiscreteEventScheduler scheduler;
+    private final Thread simulationThread;
+    private final SimulationClock previousLogClock;
+    private final ThreadMode threadMode;
+    private final ElevatorEventBus events;
+    private final MetricsRegistry metrics;
+    private final FleetMonitor fleetMonitor;
+    private final ParkingPlanner parkingPlanner;
+    private final HealthMonitor healthMonitor;
+    private final RequestJournal journal;
+    private final boolean journalSync;
+    private final long batchWindowMillis;
+    private final long submitTimeoutMillis;
+    private final List<PassengerRequest> recovered;
+    private MetricsHttpServer metricsServer;
+    private TraceRecorder traceRecorder;
+    private volatile boolean accepting;
+    private ShutdownReport shutdownReport;
     private final int numberOfElevators;
     private final int numberOfFloors;
     private final int elevatorCapacity;
@@ -19,44 +47,229 @@ public class ElevatorSystem {
     }
 
     public ElevatorSystem(int numberOfElevators, int numberOfFloors, int elevatorCapacity) {
-        this.numberOfElevators = numberOfElevators;
-        this.numberOfFloors = numberOfFloors;
-        this.elevatorCapacity = elevatorCapacity;
+        this(new ElevatorSystemConfig(numberOfElevators, numberOfFloors, elevatorCapacity));
+    }
+
+    public ElevatorSystem(int numberOfElevators, int numberOfFloors, int elevatorCapacity, DispatchStrategy dispatchStrategy) {
+        this(new ElevatorSystemConfig(numberOfElevators, numberOfFloors, elevatorCapacity).setDispatchStrategy(dispatchStrategy));
+    }
+
+    public ElevatorSystem(int numberOfElevators, int numberOfFloors, int elevatorCapacity, DiscreteEventScheduler scheduler) {
+        this(new ElevatorSystemConfig(numberOfElevators, numberOfFloors, elevatorCapacity).setScheduler(scheduler));
+    }
+
+    public ElevatorSystem(ElevatorSystemConfig config) {
+        this.numberOfElevators = config.getNumberOfElevators();
+        this.numberOfFloors = config.getNumberOfFloors();
+        this.elevatorCapacity = config.getElevatorCapacity();
+        this.scheduler = config.getScheduler();
+        this.clock = (scheduler != null) ? scheduler : new RealTimeClock();
+        this.simulationThread = (scheduler != null) ? Thread.currentThread() : null;
+        this.previousLogClock = (scheduler != null) ? Logger.setThreadClock(scheduler) : null;
+        this.events = new ElevatorEventBus();
         this.elevators = new ArrayList<>();
 
         for (int i = 1; i <= numberOfElevators; i++) {
-            elevators.add(new Elevator(i, numberOfFloors, elevatorCapacity));
+            elevators.add(new Elevator(i, numberOfFloors, elevatorCapacity, clock, events, config.getKinematicProfile(i)));
+        }
+
+        int shardCount = Math.max(1, Math.min(config.getShardCount(), Math.min(numberOfElevators, numberOfFloors)));
+        this.dispatchers = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            List<Elevator> shardElevators = new ArrayList<>(elevators.subList(
+                    shard * numberOfElevators / shardCount, (shard + 1) * numberOfElevators / shardCount));
+            RequestQueue requestQueue = new RequestQueue(config.getRequestQueueCapacity(), numberOfFloors,
+                    config.getRequestOverflowPolicy(), config.getSubmitTimeoutMillis());
+            ElevatorDispatcher dispatcher = new ElevatorDispatcher(shardElevators, config.getDispatchStrategy(),
+                    config.isBatchDispatch(), clock, events, requestQueue);
+            dispatcher.bindReassignment();
+            if (scheduler != null) {
+                dispatcher.setWakeHandler(() -> scheduleDispatch(dispatcher));
+            }
+            dispatchers.add(dispatcher);
         }
+        if (shardCount > 1) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                dispatchers.get(shard).joinShardGroup(shard, dispatchers);
+            }
+        }
+        this.router = new ShardRouter(dispatchers, numberOfFloors);
+        this.fleetMonitor = new FleetMonitor(elevators, clock.currentTimeMillis());
+        events.addListener(fleetMonitor);
+        this.parkingPlanner = config.isParking() ? new ParkingPlanner(numberOfFloors, elevators) : null;
+        if (parkingPlanner != null) {
+            events.addListener(parkingPlanner);
+            for (Elevator elevator : elevators) {
+                elevator.attachParking(parkingPlanner);
+            }
+        }
+
+        this.healthMonitor = new HealthMonitor(elevators, clock, events);
+        this.recovered = new ArrayList<>();
+        this.journalSync = config.isJournalSync();
+        this.batchWindowMillis = config.getBatchWindowMillis();
+        this.submitTimeoutMillis = config.getSubmitTimeoutMillis();
+        this.journal = (config.getJournalDirectory() != null) ? openJournal(config.getJournalDirectory()) : null;
 
-        this.dispatcher = new ElevatorDispatcher(elevators);
-        this.executorService = Executors.newFixedThreadPool(numberOfElevators + 1);
+        this.metrics = new MetricsRegistry();
+        ElevatorMetrics elevatorMetrics = new ElevatorMetrics(metrics);
+        elevatorMetrics.bind(dispatchers, elevators);
+        elevatorMetrics.bindHealth(healthMonitor);
+        events.addListener(elevatorMetrics);
+        this.threadMode = config.getThreadMode();
+        this.executorService = (scheduler == null) ? createExecutor(threadMode, numberOfElevators + shardCount + 2) : null;
+        this.accepting = true;
+    }
+
+    private RequestJournal openJournal(Path directory) {
+        try {
+            RequestJournal.Recovery recovery = RequestJournal.recover(directory, numberOfElevators);
+            RequestJournal opened = new RequestJournal(directory, recovery);
+            events.addListener(opened);
+            if (!recovery.isEmpty()) {
+                for (Elevator elevator : elevators) {
+                    elevator.restore(recovery.getCarFloor(elevator.getId()), recovery.getOnBoard(elevator.getId()));
+                }
+                for (PassengerRequest request : recovery.getWaiting()) {
+                    if (isValidFloor(request.getFromFloor()) && isValidFloor(request.getToFloor())) {
+                        recovered.add(request);
+                    }
+                }
+                Logger.logSystemEvent("Recovered " + recovered.size() + " waiting and " + recovery.getOnBoardCount()
+                        + " on-board request(s) from " + recovery.getEvents() + " journal event(s) in "
+                        + recovery.getSegments() + " segment(s), " + recovery.getElapsedMillis() + " ms");
+            }
+            return opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open request journal in " + directory, e);
+        }
+    }
+
+    private static ExecutorService createExecutor(ThreadMode threadMode, int threads) {
+        if (threadMode == ThreadMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("elevator-vt-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(threads);
     }
 
     public void start() {
-        Logger.logSystemEvent("Starting Elevator System with " + numberOfElevators + " elevators, " + numberOfFloors + " floors, capacity: " + elevatorCapacity);
+        Logger.logSystemEvent("Starting Elevator System with " + numberOfElevators + " elevators, " + numberOfFloors + " floors, capacity: " + elevatorCapacity
+                + ", shards: " + dispatchers.size() + (parkingPlanner != null ? ", predictive parking" : "")
+                + (scheduler != null ? " (discrete-event)" : " (" + threadMode.name().toLowerCase() + " threads)"));
 
-        executorService.submit(dispatcher);
+        if (scheduler != null) {
+            for (Elevator elevator : elevators) {
+                scheduler.schedule(0, () -> stepSimulated(elevator));
+            }
+            scheduler.schedule(healthMonitor.getCheckIntervalMillis(), this::checkHealthSimulated);
+            if (journal != null) {
+                scheduler.schedule(journal.getCommitIntervalMillis(), this::commitJournalSimulated);
+            }
+        } else {
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                executorService.submit(dispatcher);
+            }
 
-        for (Elevator elevator : elevators) {
-            executorService.submit(elevator);
+            for (Elevator elevator : elevators) {
+                executorService.submit(elevator);
+            }
+            executorService.submit(healthMonitor);
+            if (journal != null) {
+                executorService.submit(journal);
+            }
+        }
+
+        for (PassengerRequest request : recovered) {
+            submit(router.route(request), request);
         }
+        recovered.clear();
 
         Logger.logSystemEvent("Elevator System started successfully");
     }
 
-    public void requestElevator(int fromFloor, Direction direction, int toFloor) {
+    private void stepSimulated(Elevator elevator) {
+        if (elevator.isRunning()) {
+            long delay = elevator.step();
+            scheduler.schedule(delay, () -> stepSimulated(elevator));
+        }
+    }
+
+    private void commitJournalSimulated() {
+        if (journal.isRunning()) {
+            journal.commit();
+            scheduler.schedule(journal.getCommitIntervalMillis(), this::commitJournalSimulated);
+        }
+    }
+
+    private void checkHealthSimulated() {
+        if (healthMonitor.isRunning()) {
+            healthMonitor.check();
+            scheduler.schedule(healthMonitor.getCheckIntervalMillis(), this::checkHealthSimulated);
+        }
+    }
+
+    public SubmitResult requestElevator(int fromFloor, Direction direction, int toFloor) {
+        if (!accepting) {
+            Logger.logSystemEvent("Elevator System is not accepting requests: from=" + fromFloor + ", to=" + toFloor);
+            return SubmitResult.CLOSED;
+        }
+
         if (!isValidFloor(fromFloor) || !isValidFloor(toFloor)) {
             Logger.logSystemEvent("Invalid floor request: from=" + fromFloor + ", to=" + toFloor);
-            return;
+            return SubmitResult.INVALID;
         }
 
         if (!isValidDirection(fromFloor, toFloor, direction)) {
             Logger.logSystemEvent("Invalid direction for request: from=" + fromFloor + ", to=" + toFloor + ", direction=" + direction);
-            return;
+            return SubmitResult.INVALID;
+        }
+
+        PassengerRequest request = new PassengerRequest(fromFloor, direction, toFloor, clock.currentTimeMillis());
+        SubmitResult result = submit(router.route(request), request);
+        if (journalSync && journal != null && scheduler == null && result.isAccepted()) {
+            awaitJournal();
+        }
+        return result;
+    }
+
+    private SubmitResult submit(ElevatorDispatcher dispatcher, PassengerRequest request) {
+        if (scheduler == null) {
+            return dispatcher.submitRequest(request);
+        }
+
+        long deadline = scheduler.currentTimeMillis() + submitTimeoutMillis;
+        SubmitResult result = dispatcher.submitOrDefer(request, deadline);
+        if (result.isAccepted()) {
+            scheduleDispatch(dispatcher);
+        } else if (result == SubmitResult.DEFERRED) {
+            scheduler.scheduleAt(deadline, () -> dispatcher.expireDeferred(scheduler.currentTimeMillis()));
+        }
+        return result;
+    }
+
+    private void scheduleDispatch(ElevatorDispatcher dispatcher) {
+        if (!dispatcher.isBatchDispatch()) {
+            scheduler.schedule(0, () -> dispatchSimulated(dispatcher));
+        } else if (dispatcher.claimPendingDispatch()) {
+            scheduler.schedule(batchWindowMillis, () -> dispatchSimulated(dispatcher));
         }
+    }
 
-        PassengerRequest request = new PassengerRequest(fromFloor, direction, toFloor);
-        dispatcher.submitRequest(request);
+    private void dispatchSimulated(ElevatorDispatcher dispatcher) {
+        dispatcher.dispatchPending();
+        if (dispatcher.admitDeferred() > 0) {
+            scheduleDispatch(dispatcher);
+        }
+    }
+
+    private void awaitJournal() {
+        try {
+            if (!journal.awaitDurable(JOURNAL_SYNC_TIMEOUT_MS)) {
+                Logger.logSystemEvent("Request journal commit did not complete within " + JOURNAL_SYNC_TIMEOUT_MS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private boolean isValidFloor(int floor) {
@@ -79,33 +292,211 @@ public class ElevatorSystem {
         return true;
     }
 
-    public void shutdown() {
-        Logger.logSystemEvent("Shutting down Elevator System...");
+    public ShutdownReport shutdown() {
+        return shutdown(0);
+    }
 
-        dispatcher.shutdown();
+    public synchronized ShutdownReport shutdown(long drainTimeoutMillis) {
+        if (shutdownReport != null) {
+            return shutdownReport;
+        }
+        long startNanos = System.nanoTime();
+        Logger.logSystemEvent("Shutting down Elevator System: closing intake");
+        accepting = false;
 
+        List<PassengerRequest> unassigned = new ArrayList<>();
+        int drained = 0;
+        for (ElevatorDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+        try {
+            for (ElevatorDispatcher dispatcher : dispatchers) {
+                drained += dispatcher.awaitDrain(unassigned, THREAD_STOP_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean idle = isIdle();
+        if (!idle && drainTimeoutMillis > 0) {
+            Logger.logSystemEvent("Draining in-flight trips for up to " + drainTimeoutMillis + " ms");
+            idle = awaitIdle(drainTimeoutMillis);
+        }
+
+        Logger.logSystemEvent("Stopping elevators");
+        healthMonitor.shutdown();
         for (Elevator elevator : elevators) {
             elevator.shutdown();
         }
+        if (journal != null) {
+            journal.shutdown();
+        }
+
+        boolean forced = false;
+        if (executorService != null) {
+            executorService.shutdownNow();
+            try {
+                forced = !executorService.awaitTermination(THREAD_STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                forced = true;
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<PassengerRequest> waiting = new ArrayList<>();
+        List<PassengerRequest> onBoard = new ArrayList<>();
+        for (Elevator elevator : elevators) {
+            elevator.collectUnserved(waiting, onBoard);
+        }
+
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        stopTrace();
+        fleetMonitor.close();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                Logger.logSystemEvent("Error closing request journal " + journal.getDirectory() + ": " + e.getMessage());
+            }
+        }
+
+        shutdownReport = new ShutdownReport(drained, unassigned, waiting, onBoard, idle, forced, System.nanoTime() - startNanos);
+        Logger.logSystemEvent("Elevator System shut down: " + shutdownReport);
+        Logger.flush();
+        if (Thread.currentThread() == simulationThread) {
+            Logger.setThreadClock(previousLogClock);
+        }
+        return shutdownReport;
+    }
 
-        executorService.shutdown();
+    private boolean awaitIdle(long timeoutMillis) {
+        if (scheduler != null) {
+            long deadline = scheduler.currentTimeMillis() + timeoutMillis;
+            while (!isIdle() && scheduler.currentTimeMillis() < deadline) {
+                scheduler.runFor(Math.min(SIMULATED_DRAIN_STEP_MS, deadline - scheduler.currentTimeMillis()));
+            }
+            return isIdle();
+        }
 
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
         try {
-            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+            while (!isIdle() && System.nanoTime() < deadline) {
+                Thread.sleep(DRAIN_POLL_TIME_MS);
             }
         } catch (InterruptedException e) {
-            executorService.shutdownNow();
             Thread.currentThread().interrupt();
         }
+        return isIdle();
+    }
+
+    private boolean isIdle() {
+        for (ElevatorDispatcher dispatcher : dispatchers) {
+            if (dispatcher.getQueueDepth() > 0) {
+                return false;
+            }
+        }
+        for (Elevator elevator : elevators) {
+            ElevatorState state = elevator.getState();
+            if (state.isInService() && (state.getPendingStops() > 0 || state.getCurrentPassengers() > 0
+                    || state.getAssignedPassengers() > 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    public int startMetricsServer(int port) throws IOException {
+        if (metricsServer == null) {
+            metricsServer = new MetricsHttpServer(metrics, fleetMonitor, port);
+            metricsServer.start();
+        }
+        return metricsServer.getPort();
+    }
+
+    public TraceRecorder startTrace(Path path) throws IOException {
+        if (traceRecorder == null) {
+            traceRecorder = new TraceRecorder(path, numberOfElevators, numberOfFloors, elevatorCapacity, clock.currentTimeMillis());
+            events.addListener(traceRecorder);
+            Logger.logSystemEvent("Recording trace to " + path);
+        }
+        return traceRecorder;
+    }
+
+    public void stopTrace() {
+        if (traceRecorder == null) {
+            return;
+        }
+        events.removeListener(traceRecorder);
+        try {
+            traceRecorder.close();
+            Logger.logSystemEvent("Trace " + traceRecorder.getPath() + " closed with " + traceRecorder.getRecordCount() + " records");
+        } catch (IOException e) {
+            Logger.logSystemEvent("Error closing trace " + traceRecorder.getPath() + ": " + e.getMessage());
+        }
+        traceRecorder = null;
+    }
+
+    public void addEventListener(ElevatorEventListener listener) {
+        events.addListener(listener);
+    }
+
+    public void removeEventListener(ElevatorEventListener listener) {
+        events.removeListener(listener);
+    }
+
+    public FleetSnapshot getFleetSnapshot() {
+        return fleetMonitor.getSnapshot();
+    }
+
+    public void subscribeFleetChanges(Flow.Subscriber<? super FleetChange> subscriber) {
+        fleetMonitor.subscribe(subscriber);
+    }
+
+    public ParkingPlanner getParkingPlanner() {
+        return parkingPlanner;
+    }
+
+    public RequestJournal getJournal() {
+        return journal;
+    }
 
-        Logger.logSystemEvent("Elevator System shut down successfully");
+    public HealthMonitor getHealthMonitor() {
+        return healthMonitor;
     }
 
     public List<Elevator> getElevators() {
         return new ArrayList<>(elevators);
     }
 
+    public List<ElevatorDispatcher> getDispatchers() {
+        return new ArrayList<>(dispatchers);
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public boolean isSimulated() {
+        return scheduler != null;
+    }
+
     public int getNumberOfElevators() {
         return numberOfElevators;
     }
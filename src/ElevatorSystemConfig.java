@@ -0,0 +1,287 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+public class ElevatorSystemConfig {
+    public static final long DEFAULT_BATCH_WINDOW_MS = 250;
+
+    private static final Set<String> KEYS = Set.of("elevators", "floors", "capacity", "strategy", "batch", "batch.window.ms", "threads",
+            "shards", "queue.capacity", "queue.overflow", "submit.timeout.ms", "parking", "profile", "journal.dir",
+            "journal.sync", "metrics.port", "trace", "log.level", "log.overflow");
+
+    private int numberOfElevators;
+    private int numberOfFloors;
+    private int elevatorCapacity;
+    private DiscreteEventScheduler scheduler;
+    private boolean batchDispatch;
+    private long batchWindowMillis;
+    private DispatchStrategy dispatchStrategy;
+    private ThreadMode threadMode;
+    private int shardCount;
+    private int requestQueueCapacity;
+    private RequestOverflowPolicy requestOverflowPolicy;
+    private long submitTimeoutMillis;
+    private boolean parking;
+    private KinematicProfile kinematicProfile;
+    private final Map<Integer, KinematicProfile> carProfiles;
+    private Path journalDirectory;
+    private boolean journalSync;
+
+    public ElevatorSystemConfig(int numberOfElevators, int numberOfFloors, int elevatorCapacity) {
+        this.numberOfElevators = numberOfElevators;
+        this.numberOfFloors = numberOfFloors;
+        this.elevatorCapacity = elevatorCapacity;
+        this.scheduler = null;
+        this.batchDispatch = false;
+        this.batchWindowMillis = DEFAULT_BATCH_WINDOW_MS;
+        this.dispatchStrategy = new NearestCarStrategy();
+        this.threadMode = ThreadMode.PLATFORM;
+        this.shardCount = 1;
+        this.requestQueueCapacity = RequestQueue.DEFAULT_CAPACITY;
+        this.requestOverflowPolicy = RequestOverflowPolicy.BLOCK;
+        this.submitTimeoutMillis = RequestQueue.DEFAULT_BLOCK_TIMEOUT_MS;
+        this.parking = false;
+        this.kinematicProfile = KinematicProfile.LEGACY;
+        this.carProfiles = new HashMap<>();
+        this.journalDirectory = null;
+        this.journalSync = false;
+    }
+
+    public static ElevatorSystemConfig load(Path path) throws IOException {
+        Properties properties = loadProperties(path);
+        try {
+            return fromProperties(properties);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    static Properties loadProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    public static ElevatorSystemConfig fromProperties(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown configuration key: " + key);
+            }
+        }
+
+        int elevators = intProperty(properties, "elevators", 3);
+        int floors = intProperty(properties, "floors", 10);
+        int capacity = intProperty(properties, "capacity", 8);
+        if (elevators < 1 || floors < 2 || capacity < 1) {
+            throw new IllegalArgumentException("Building needs at least 1 elevator, 2 floors and a capacity of 1");
+        }
+
+        ElevatorSystemConfig config = new ElevatorSystemConfig(elevators, floors, capacity);
+        String strategy = properties.getProperty("strategy");
+        if (strategy != null) {
+            config.setDispatchStrategy(DispatchStrategy.named(strategy.trim(), floors, elevators));
+        }
+        String profile = properties.getProperty("profile");
+        if (profile != null) {
+            config.setKinematicProfiles(profile);
+        }
+        String threads = properties.getProperty("threads");
+        if (threads != null) {
+            config.setThreadMode(ThreadMode.valueOf(threads.trim().toUpperCase()));
+        }
+        String overflow = properties.getProperty("queue.overflow");
+        if (overflow != null) {
+            config.setRequestOverflowPolicy(RequestOverflowPolicy.valueOf(overflow.trim().toUpperCase()));
+        }
+        String journal = properties.getProperty("journal.dir");
+        if (journal != null) {
+            config.setJournalDirectory(Path.of(journal.trim()));
+        }
+        return config.setBatchDispatch(Boolean.parseBoolean(properties.getProperty("batch", "false").trim()))
+                .setBatchWindowMillis(intProperty(properties, "batch.window.ms", (int) DEFAULT_BATCH_WINDOW_MS))
+                .setShardCount(intProperty(properties, "shards", 1))
+                .setRequestQueueCapacity(intProperty(properties, "queue.capacity", RequestQueue.DEFAULT_CAPACITY))
+                .setSubmitTimeoutMillis(intProperty(properties, "submit.timeout.ms", (int) RequestQueue.DEFAULT_BLOCK_TIMEOUT_MS))
+                .setParking(Boolean.parseBoolean(properties.getProperty("parking", "false").trim()))
+                .setJournalSync(Boolean.parseBoolean(properties.getProperty("journal.sync", "false").trim()));
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    public int getNumberOfElevators() {
+        return numberOfElevators;
+    }
+
+    public ElevatorSystemConfig setNumberOfElevators(int numberOfElevators) {
+        this.numberOfElevators = numberOfElevators;
+        return this;
+    }
+
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+
+    public ElevatorSystemConfig setNumberOfFloors(int numberOfFloors) {
+        this.numberOfFloors = numberOfFloors;
+        return this;
+    }
+
+    public int getElevatorCapacity() {
+        return elevatorCapacity;
+    }
+
+    public ElevatorSystemConfig setElevatorCapacity(int elevatorCapacity) {
+        this.elevatorCapacity = elevatorCapacity;
+        return this;
+    }
+
+    public DiscreteEventScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public ElevatorSystemConfig setScheduler(DiscreteEventScheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    public boolean isBatchDispatch() {
+        return batchDispatch;
+    }
+
+    public ElevatorSystemConfig setBatchDispatch(boolean batchDispatch) {
+        this.batchDispatch = batchDispatch;
+        return this;
+    }
+
+    public long getBatchWindowMillis() {
+        return batchWindowMillis;
+    }
+
+    public ElevatorSystemConfig setBatchWindowMillis(long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+        return this;
+    }
+
+    public DispatchStrategy getDispatchStrategy() {
+        return dispatchStrategy;
+    }
+
+    public ElevatorSystemConfig setDispatchStrategy(DispatchStrategy dispatchStrategy) {
+        this.dispatchStrategy = dispatchStrategy;
+        return this;
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public ElevatorSystemConfig setThreadMode(ThreadMode threadMode) {
+        this.threadMode = threadMode;
+        return this;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public ElevatorSystemConfig setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public int getRequestQueueCapacity() {
+        return requestQueueCapacity;
+    }
+
+    public ElevatorSystemConfig setRequestQueueCapacity(int requestQueueCapacity) {
+        this.requestQueueCapacity = requestQueueCapacity;
+        return this;
+    }
+
+    public RequestOverflowPolicy getRequestOverflowPolicy() {
+        return requestOverflowPolicy;
+    }
+
+    public ElevatorSystemConfig setRequestOverflowPolicy(RequestOverflowPolicy requestOverflowPolicy) {
+        this.requestOverflowPolicy = requestOverflowPolicy;
+        return this;
+    }
+
+    public long getSubmitTimeoutMillis() {
+        return submitTimeoutMillis;
+    }
+
+    public ElevatorSystemConfig setSubmitTimeoutMillis(long submitTimeoutMillis) {
+        this.submitTimeoutMillis = submitTimeoutMillis;
+        return this;
+    }
+
+    public boolean isParking() {
+        return parking;
+    }
+
+    public ElevatorSystemConfig setParking(boolean parking) {
+        this.parking = parking;
+        return this;
+    }
+
+    public KinematicProfile getKinematicProfile(int elevatorId) {
+        return carProfiles.getOrDefault(elevatorId, kinematicProfile);
+    }
+
+    public ElevatorSystemConfig setKinematicProfile(KinematicProfile kinematicProfile) {
+        this.kinematicProfile = kinematicProfile;
+        return this;
+    }
+
+    public ElevatorSystemConfig setKinematicProfile(int elevatorId, KinematicProfile kinematicProfile) {
+        carProfiles.put(elevatorId, kinematicProfile);
+        return this;
+    }
+
+    public ElevatorSystemConfig setKinematicProfiles(String spec) {
+        String[] names = spec.split(",");
+        if (names.length == 1) {
+            return setKinematicProfile(KinematicProfile.named(names[0].trim()));
+        }
+        for (int id = 1; id <= numberOfElevators; id++) {
+            setKinematicProfile(id, KinematicProfile.named(names[(id - 1) % names.length].trim()));
+        }
+        return this;
+    }
+
+    public Path getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public ElevatorSystemConfig setJournalDirectory(Path journalDirectory) {
+        this.journalDirectory = journalDirectory;
+        return this;
+    }
+
+    public boolean isJournalSync() {
+        return journalSync;
+    }
+
+    public ElevatorSystemConfig setJournalSync(boolean journalSync) {
+        this.journalSync = journalSync;
+        return this;
+    }
+}
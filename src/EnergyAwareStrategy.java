@@ -0,0 +1,54 @@
+public class EnergyAwareStrategy implements DispatchStrategy {
+    public static final double DEFAULT_MILLIS_PER_WH = 500;
+
+    private final DispatchStrategy base;
+    private final double millisPerWh;
+
+    public EnergyAwareStrategy() {
+        this(new EtaDispatchStrategy(), DEFAULT_MILLIS_PER_WH);
+    }
+
+    public EnergyAwareStrategy(DispatchStrategy base, double millisPerWh) {
+        this.base = base;
+        this.millisPerWh = millisPerWh;
+    }
+
+    @Override
+    public long cost(ElevatorState state, PassengerRequest request) {
+        long cost = base.cost(state, request) + Math.round(millisPerWh * marginalEnergyWh(state, request));
+        return Math.max(0, cost);
+    }
+
+    static double marginalEnergyWh(ElevatorState state, PassengerRequest request) {
+        TravelTable table = state.getTravelTable();
+        int load = state.getCurrentPassengers();
+        int pickupFloor = request.getFromFloor();
+        int toFloor = request.getToFloor();
+        int position = state.getCurrentFloor();
+        Direction travel = state.getDirection();
+
+        for (int stop : state.plannedRouteView()) {
+            if (stop != position) {
+                travel = (stop > position) ? Direction.UP : Direction.DOWN;
+            }
+            if (EtaDispatchStrategy.isOnLeg(position, stop, pickupFloor, travel, request.getDirection())) {
+                double extraStop = (pickupFloor == stop) ? 0 : table.stopEnergyWh(load);
+                return extraStop + table.runEnergyWh(pickupFloor, toFloor, load + 1) - table.runEnergyWh(pickupFloor, toFloor, load);
+            }
+            position = stop;
+        }
+
+        int approachLoad = (position == state.getCurrentFloor()) ? load : 0;
+        return table.runEnergyWh(position, pickupFloor, approachLoad) + table.runEnergyWh(pickupFloor, toFloor, approachLoad + 1);
+    }
+
+    @Override
+    public long queuedCallPenalty(ElevatorState state) {
+        return base.queuedCallPenalty(state);
+    }
+
+    @Override
+    public String getName() {
+        return base.getName() + "-energy";
+    }
+}
@@ -0,0 +1,77 @@
+public class EtaDispatchStrategy implements DispatchStrategy {
+    private static final long BOARDING_TIME_PER_PASSENGER_MS = 500;
+    private static final long FULL_CAR_PENALTY_MS = 60_000;
+
+    private final boolean destinationGrouping;
+
+    public EtaDispatchStrategy() {
+        this(false);
+    }
+
+    public EtaDispatchStrategy(boolean destinationGrouping) {
+        this.destinationGrouping = destinationGrouping;
+    }
+
+    @Override
+    public long cost(ElevatorState state, PassengerRequest request) {
+        long eta = estimateArrival(state, request.getFromFloor(), request.getDirection());
+        eta += state.getCurrentPassengers() * BOARDING_TIME_PER_PASSENGER_MS;
+
+        if (destinationGrouping && !isPlannedStop(state, request.getToFloor())) {
+            eta += state.getTravelTable().stopMillis();
+        }
+
+        if (!state.hasCapacity()) {
+            eta += FULL_CAR_PENALTY_MS;
+        }
+        return eta;
+    }
+
+    @Override
+    public long queuedCallPenalty(ElevatorState state) {
+        return state.getTravelTable().stopMillis();
+    }
+
+    @Override
+    public String getName() {
+        return destinationGrouping ? "eta-grouped" : "eta";
+    }
+
+    private static boolean isPlannedStop(ElevatorState state, int floor) {
+        for (int stop : state.plannedRouteView()) {
+            if (stop == floor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static long estimateArrival(ElevatorState state, int pickupFloor, Direction pickupDirection) {
+        TravelTable table = state.getTravelTable();
+        int[] route = state.plannedRouteView();
+        int position = state.getCurrentFloor();
+        Direction travel = state.getDirection();
+        long eta = (state.getStatus() == ElevatorStatus.DOORS_OPEN) ? table.stopMillis() : 0;
+
+        for (int stop : route) {
+            if (stop != position) {
+                travel = (stop > position) ? Direction.UP : Direction.DOWN;
+            }
+            if (isOnLeg(position, stop, pickupFloor, travel, pickupDirection)) {
+                return eta + table.travelMillis(position, pickupFloor);
+            }
+
+            eta += table.travelMillis(position, stop) + table.stopMillis();
+            position = stop;
+        }
+
+        return eta + table.travelMillis(position, pickupFloor);
+    }
+
+    static boolean isOnLeg(int from, int to, int floor, Direction travel, Direction pickupDirection) {
+        if (travel != pickupDirection && travel != Direction.IDLE) {
+            return false;
+        }
+        return (from <= to) ? floor >= from && floor <= to : floor <= from && floor >= to;
+    }
+}
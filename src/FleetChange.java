@@ -0,0 +1,28 @@
+public final class FleetChange {
+    private final long version;
+    private final long timeMillis;
+    private final ElevatorState state;
+
+    FleetChange(long version, long timeMillis, ElevatorState state) {
+        this.version = version;
+        this.timeMillis = timeMillis;
+        this.state = state;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public ElevatorState getState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return "FleetChange{version=" + version + ", " + state + "}";
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class FleetMonitor implements ElevatorEventListener, AutoCloseable {
+    private final AtomicReferenceArray<ElevatorState> states;
+    private final AtomicLong started;
+    private final AtomicLong version;
+    private final AtomicLongArray changeMillis;
+    private final SubmissionPublisher<FleetChange> changes;
+    private final AtomicLong droppedChanges;
+    private volatile FleetSnapshot snapshot;
+
+    public FleetMonitor(List<Elevator> elevators, long timeMillis) {
+        ElevatorState[] initial = new ElevatorState[elevators.size()];
+        for (Elevator elevator : elevators) {
+            initial[elevator.getId() - 1] = elevator.getState();
+        }
+        this.states = new AtomicReferenceArray<>(initial);
+        this.started = new AtomicLong();
+        this.version = new AtomicLong();
+        this.changeMillis = new AtomicLongArray(initial.length);
+        for (int i = 0; i < initial.length; i++) {
+            changeMillis.set(i, timeMillis);
+        }
+        this.changes = new SubmissionPublisher<>();
+        this.droppedChanges = new AtomicLong();
+        this.snapshot = new FleetSnapshot(0, timeMillis, initial.clone());
+    }
+
+    public FleetSnapshot getSnapshot() {
+        FleetSnapshot cached = snapshot;
+        ElevatorState[] copy = new ElevatorState[states.length()];
+        while (true) {
+            long current = version.get();
+            if (cached.getVersion() == current) {
+                return cached;
+            }
+            long begun = started.get();
+            if (begun != current) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            long timeMillis = 0;
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = states.get(i);
+                timeMillis = Math.max(timeMillis, changeMillis.get(i));
+            }
+            if (started.get() != begun) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            FleetSnapshot built = new FleetSnapshot(current, timeMillis, copy);
+            if (built.getVersion() > snapshot.getVersion()) {
+                snapshot = built;
+            }
+            return built;
+        }
+    }
+
+    public void subscribe(Flow.Subscriber<? super FleetChange> subscriber) {
+        changes.subscribe(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return changes.getNumberOfSubscribers();
+    }
+
+    public long getDroppedChanges() {
+        return droppedChanges.get();
+    }
+
+    @Override
+    public void onElevatorStateChange(ElevatorState state, long timeMillis) {
+        int slot = state.getElevatorId() - 1;
+        started.incrementAndGet();
+        changeMillis.set(slot, timeMillis);
+        states.set(slot, state);
+        long changeVersion = version.incrementAndGet();
+
+        if (changes.hasSubscribers()) {
+            changes.offer(new FleetChange(changeVersion, timeMillis, state), (subscriber, change) -> {
+                droppedChanges.incrementAndGet();
+                return false;
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        changes.close();
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class FleetSnapshot {
+    private final long version;
+    private final long timeMillis;
+    private final ElevatorState[] states;
+
+    FleetSnapshot(long version, long timeMillis, ElevatorState[] states) {
+        this.version = version;
+        this.timeMillis = timeMillis;
+        this.states = states;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int size() {
+        return states.length;
+    }
+
+    public ElevatorState get(int elevatorId) {
+        return states[elevatorId - 1];
+    }
+
+    public List<ElevatorState> getStates() {
+        return Collections.unmodifiableList(Arrays.asList(states));
+    }
+
+    public int countByStatus(ElevatorStatus status) {
+        int count = 0;
+        for (ElevatorState state : states) {
+            if (state.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getTotalPassengers() {
+        int total = 0;
+        for (ElevatorState state : states) {
+            total += state.getCurrentPassengers();
+        }
+        return total;
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(64 + states.length * 128);
+        sb.append("{\"version\":").append(version).append(",\"time\":").append(timeMillis).append(",\"elevators\":[");
+        for (int i = 0; i < states.length; i++) {
+            ElevatorState state = states[i];
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(state.getElevatorId())
+                    .append(",\"floor\":").append(state.getCurrentFloor())
+                    .append(",\"direction\":\"").append(state.getDirection().name()).append('"')
+                    .append(",\"status\":\"").append(state.getStatus().name()).append('"')
+                    .append(",\"passengers\":").append(state.getCurrentPassengers())
+                    .append(",\"assigned\":").append(state.getAssignedPassengers())
+                    .append(",\"capacity\":").append(state.getMaxCapacity())
+                    .append(",\"nextStop\":").append(state.getNextPlannedStop())
+                    .append(",\"stops\":").append(state.getPendingStops())
+                    .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+public class HallCallRegistry {
+    private final HallCall[] calls;
+    private final ReentrantLock lock;
+    private volatile BiConsumer<Elevator, PassengerRequest> reassign;
+    private int activeCalls;
+    private long merged;
+    private long reassigned;
+
+    public HallCallRegistry(int maxFloor) {
+        this.calls = new HallCall[2 * (maxFloor + 1)];
+        this.lock = new ReentrantLock();
+    }
+
+    public void setReassignHandler(BiConsumer<Elevator, PassengerRequest> reassign) {
+        this.reassign = reassign;
+    }
+
+    public Elevator assignedCar(PassengerRequest request) {
+        int key = keyOf(request.getFromFloor(), request.getDirection());
+        if (key >= calls.length) {
+            return null;
+        }
+        lock.lock();
+        try {
+            HallCall call = calls[key];
+            return (call == null || !call.elevator.getState().hasCapacity()) ? null : call.elevator;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void register(PassengerRequest request, Elevator elevator) {
+        lock.lock();
+        try {
+            int key = keyOf(request.getFromFloor(), request.getDirection());
+            HallCall call = calls[key];
+            if (call == null) {
+                calls[key] = new HallCall(elevator);
+                activeCalls++;
+            } else if (call.elevator == elevator) {
+                call.passengers++;
+                merged++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void served(Elevator elevator, int floor, List<PassengerRequest> stillWaiting) {
+        boolean upWaiting = false;
+        boolean downWaiting = false;
+        for (PassengerRequest request : stillWaiting) {
+            if (request.getDirection() == Direction.UP) {
+                upWaiting = true;
+            } else {
+                downWaiting = true;
+            }
+        }
+
+        lock.lock();
+        try {
+            if (!upWaiting) {
+                release(elevator, keyOf(floor, Direction.UP));
+            }
+            if (!downWaiting) {
+                release(elevator, keyOf(floor, Direction.DOWN));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void reassign(Elevator from, List<PassengerRequest> requests) {
+        lock.lock();
+        try {
+            reassigned += requests.size();
+            for (PassengerRequest request : requests) {
+                int key = keyOf(request.getFromFloor(), request.getDirection());
+                HallCall call = calls[key];
+                if (call != null && call.elevator == from && --call.passengers == 0) {
+                    calls[key] = null;
+                    activeCalls--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        BiConsumer<Elevator, PassengerRequest> handler = reassign;
+        if (handler == null) {
+            Logger.logSystemEvent("No dispatcher attached to reassign " + requests.size() + " request(s) from elevator " + from.getId());
+            return;
+        }
+        for (PassengerRequest request : requests) {
+            handler.accept(from, request);
+        }
+    }
+
+    public int getPassengers(int floor, Direction direction) {
+        lock.lock();
+        try {
+            HallCall call = calls[keyOf(floor, direction)];
+            return (call == null) ? 0 : call.passengers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveCalls() {
+        lock.lock();
+        try {
+            return activeCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMergedCount() {
+        lock.lock();
+        try {
+            return merged;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getReassignedCount() {
+        lock.lock();
+        try {
+            return reassigned;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Elevator elevator, int key) {
+        HallCall call = calls[key];
+        if (call != null && call.elevator == elevator) {
+            calls[key] = null;
+            activeCalls--;
+        }
+    }
+
+    private static int keyOf(int floor, Direction direction) {
+        return floor * 2 + (direction == Direction.UP ? 0 : 1);
+    }
+
+    private static final class HallCall {
+        private final Elevator elevator;
+        private int passengers;
+
+        private HallCall(Elevator elevator) {
+            this.elevator = elevator;
+            this.passengers = 1;
+        }
+    }
+}
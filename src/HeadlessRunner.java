@@ -0,0 +1,276 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HeadlessRunner {
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+    private static final long DEFAULT_DRAIN_MS = 10 * 60_000;
+    private static final Set<String> OPTIONS = Set.of("--config", "--port", "--ingest", "--drain");
+
+    private final ElevatorSystem system;
+    private final Set<Socket> clients;
+    private volatile ServerSocket serverSocket;
+    private volatile long drainMillis;
+
+    public HeadlessRunner(ElevatorSystem system, long drainMillis) {
+        this.system = system;
+        this.clients = ConcurrentHashMap.newKeySet();
+        this.drainMillis = drainMillis;
+    }
+
+    public static void main(String[] args) {
+        Path configPath = null;
+        int port = -1;
+        long drainMillis = DEFAULT_DRAIN_MS;
+        List<Path> ingestFiles = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                printUsage();
+                return;
+            }
+            if (!OPTIONS.contains(option)) {
+                System.err.println("Unknown option: " + option);
+                printUsage();
+                return;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + option);
+                printUsage();
+                return;
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--config":
+                        configPath = Path.of(value);
+                        break;
+                    case "--port":
+                        port = Integer.parseInt(value);
+                        break;
+                    case "--ingest":
+                        ingestFiles.add(Path.of(value));
+                        break;
+                    default:
+                        drainMillis = Math.round(Double.parseDouble(value) * 1000);
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: Invalid value for " + option + ": " + value);
+                return;
+            }
+        }
+
+        Properties properties;
+        ElevatorSystemConfig config;
+        try {
+            properties = (configPath != null) ? ElevatorSystemConfig.loadProperties(configPath) : new Properties();
+            config = ElevatorSystemConfig.fromProperties(properties);
+            Logger.setLevel(LogLevel.valueOf(properties.getProperty("log.level", "WARN").trim().toUpperCase()));
+            Logger.setOverflowPolicy(LogOverflowPolicy.valueOf(properties.getProperty("log.overflow", "DROP").trim().toUpperCase()));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: Invalid configuration " + (configPath != null ? configPath : "defaults") + ": " + e.getMessage());
+            return;
+        }
+
+        ElevatorSystem system = new ElevatorSystem(config);
+        system.start();
+        startEndpoints(system, properties);
+        HeadlessRunner runner = new HeadlessRunner(system, drainMillis);
+        System.err.printf("Headless elevator system: %d elevators, %d floors, capacity %d, %s%n",
+                config.getNumberOfElevators(), config.getNumberOfFloors(), config.getElevatorCapacity(),
+                config.getDispatchStrategy().getName());
+
+        try {
+            boolean running = true;
+            for (Path file : ingestFiles) {
+                running = runner.ingestFile(file) && running;
+            }
+            if (running && port >= 0) {
+                runner.serve(port);
+            } else if (running && ingestFiles.isEmpty()) {
+                runner.serveStream(System.in, System.out);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+
+        ShutdownReport report = system.shutdown(runner.drainMillis);
+        System.err.println("System terminated: " + report);
+        if (report.getUnservedCount() > 0) {
+            System.err.println("Warning: " + report.getUnservedCount() + " accepted request(s) were not served within the "
+                    + runner.drainMillis / 1000.0 + " s drain; use --drain SECONDS to wait longer");
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: headless [--config FILE] [--ingest FILE]... [--port N] [--drain SECONDS]");
+        System.err.println("  Without --port or --ingest, requests and commands are read from stdin.");
+        System.err.println("  On exit, waits up to --drain seconds (default " + DEFAULT_DRAIN_MS / 1000
+                + ") for the fleet to serve accepted requests; 0 stops immediately.");
+    }
+
+    private static void startEndpoints(ElevatorSystem system, Properties properties) {
+        String metricsPort = properties.getProperty("metrics.port");
+        if (metricsPort != null) {
+            try {
+                system.startMetricsServer(Integer.parseInt(metricsPort.trim()));
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Error: Could not start metrics endpoint: " + e.getMessage());
+            }
+        }
+        String trace = properties.getProperty("trace");
+        if (trace != null) {
+            try {
+                system.startTrace(Path.of(trace.trim()));
+            } catch (IOException e) {
+                System.err.println("Error: Could not start trace recording: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean ingestFile(Path file) throws IOException {
+        RequestIngestor ingestor = new RequestIngestor(system, System.err);
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(file)) {
+            ingestor.ingest(in);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Ingested %s: %s in %.3f s (%.0f requests/s)%n",
+                file, ingestor, seconds, ingestor.getRequests() / Math.max(seconds, 1e-9));
+        return !ingestor.isStopped();
+    }
+
+    public void serveStream(InputStream in, PrintStream out) throws IOException {
+        PrintStream buffered = new PrintStream(new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE), false, StandardCharsets.UTF_8);
+        new RequestIngestor(system, buffered, this::handleCommand).ingest(in);
+    }
+
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            serverSocket = server;
+            System.err.println("Accepting requests on localhost:" + server.getLocalPort());
+            while (!server.isClosed()) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketException e) {
+                    break;
+                }
+                clients.add(socket);
+                Thread session = new Thread(() -> runSession(socket), "Ingest-" + socket.getPort());
+                session.setDaemon(true);
+                session.start();
+            }
+        } finally {
+            for (Socket client : clients) {
+                closeQuietly(client);
+            }
+        }
+    }
+
+    private void runSession(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE),
+                    false, StandardCharsets.UTF_8);
+            RequestIngestor ingestor = new RequestIngestor(system, out, this::handleCommand);
+            ingestor.ingest(socket.getInputStream());
+            Logger.logSystemEvent("Ingest session " + socket.getRemoteSocketAddress() + " closed: " + ingestor);
+        } catch (IOException e) {
+            Logger.logSystemEvent("Ingest session " + socket.getRemoteSocketAddress() + " failed: " + e.getMessage());
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    private boolean handleCommand(String command, RequestIngestor ingestor, PrintStream out) {
+        String[] parts = command.split("\\s+");
+        switch (parts[0].toLowerCase()) {
+            case "ping":
+                out.println("OK pong");
+                return true;
+            case "status":
+                out.println("OK " + system.getFleetSnapshot().toJson());
+                return true;
+            case "metrics":
+                out.print(system.getMetricsSnapshot().toPrometheusText());
+                out.println("OK");
+                return true;
+            case "stats":
+                out.println("OK " + ingestor);
+                return true;
+            case "fault":
+            case "repair":
+                return handleFault(parts, out);
+            case "quit":
+                out.println("OK bye");
+                return false;
+            case "shutdown":
+                return handleShutdown(parts, out);
+            default:
+                out.println("ERR " + ingestor.getLines() + " unknown command: " + parts[0]);
+                return true;
+        }
+    }
+
+    private boolean handleFault(String[] parts, PrintStream out) {
+        int id;
+        try {
+            id = (parts.length == 2) ? Integer.parseInt(parts[1]) : 0;
+        } catch (NumberFormatException e) {
+            id = 0;
+        }
+        if (id < 1 || id > system.getNumberOfElevators()) {
+            out.println("ERR no elevator " + (parts.length == 2 ? parts[1] : ""));
+            return true;
+        }
+
+        Elevator elevator = system.getElevators().get(id - 1);
+        if (parts[0].equalsIgnoreCase("fault")) {
+            elevator.injectFault();
+        } else {
+            elevator.restoreService();
+        }
+        out.println("OK " + parts[0].toLowerCase() + " " + id);
+        return true;
+    }
+
+    private boolean handleShutdown(String[] parts, PrintStream out) {
+        if (parts.length == 2) {
+            try {
+                drainMillis = Math.round(Double.parseDouble(parts[1]) * 1000);
+            } catch (NumberFormatException e) {
+                out.println("ERR invalid drain time: " + parts[1]);
+                return true;
+            }
+        }
+        out.println("OK shutting down");
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            closeQuietly(server);
+        }
+        return false;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            Logger.logSystemEvent("Failed to close " + closeable + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class HealthMonitor implements Runnable {
+    public static final long DEFAULT_GRACE_MS = 500;
+    public static final long DEFAULT_CHECK_INTERVAL_MS = 250;
+
+    private final List<Elevator> elevators;
+    private final SimulationClock clock;
+    private final ElevatorEventListener events;
+    private final long graceMillis;
+    private final long checkIntervalMillis;
+    private final ReentrantLock lock;
+    private long failovers;
+    private long requestsMoved;
+    private volatile boolean running;
+
+    public HealthMonitor(List<Elevator> elevators, SimulationClock clock, ElevatorEventListener events) {
+        this(elevators, clock, events, DEFAULT_GRACE_MS, DEFAULT_CHECK_INTERVAL_MS);
+    }
+
+    public HealthMonitor(List<Elevator> elevators, SimulationClock clock, ElevatorEventListener events,
+                         long graceMillis, long checkIntervalMillis) {
+        this.elevators = elevators;
+        this.clock = clock;
+        this.events = events;
+        this.graceMillis = graceMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.lock = new ReentrantLock();
+        this.running = true;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                check();
+                clock.sleep(checkIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    public void check() {
+        long now = clock.currentTimeMillis();
+        for (Elevator elevator : elevators) {
+            if (elevator.getState().isInService() && now > elevator.getHeartbeatDeadline() + graceMillis) {
+                failover(elevator, now);
+            }
+        }
+    }
+
+    private void failover(Elevator elevator, long now) {
+        long faultTime = elevator.getFaultTime();
+        long latency = now - ((faultTime >= 0) ? faultTime : elevator.getHeartbeatDeadline());
+        Logger.logSystemEvent("Elevator " + elevator.getId() + " missed its heartbeat by "
+                + (now - elevator.getHeartbeatDeadline()) + " ms, taking it out of service");
+        int moved = elevator.takeOutOfService();
+
+        lock.lock();
+        try {
+            failovers++;
+            requestsMoved += moved;
+        } finally {
+            lock.unlock();
+        }
+        events.onElevatorOutOfService(elevator.getId(), moved, latency, now);
+    }
+
+    public long getCheckIntervalMillis() {
+        return checkIntervalMillis;
+    }
+
+    public long getFailoverCount() {
+        lock.lock();
+        try {
+            return failovers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRequestsMoved() {
+        lock.lock();
+        try {
+            return requestsMoved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getOutOfServiceCount() {
+        int count = 0;
+        for (Elevator elevator : elevators) {
+            if (!elevator.getState().isInService()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getStrandedPassengers() {
+        int stranded = 0;
+        for (Elevator elevator : elevators) {
+            ElevatorState state = elevator.getState();
+            if (!state.isInService()) {
+                stranded += state.getCurrentPassengers();
+            }
+        }
+        return stranded;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void shutdown() {
+        running = false;
+    }
+}
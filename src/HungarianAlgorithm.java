@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+public final class HungarianAlgorithm {
+    private HungarianAlgorithm() {
+    }
+
+    public static int[] solve(long[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+
+        int cols = cost[0].length;
+        if (rows > cols) {
+            throw new IllegalArgumentException("Cost matrix needs at least as many columns as rows: " + rows + "x" + cols);
+        }
+
+        long[] rowPotential = new long[rows + 1];
+        long[] colPotential = new long[cols + 1];
+        int[] rowForCol = new int[cols + 1];
+        int[] way = new int[cols + 1];
+        long[] minSlack = new long[cols + 1];
+        boolean[] used = new boolean[cols + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            rowForCol[0] = row;
+            int col0 = 0;
+            Arrays.fill(minSlack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+
+            do {
+                used[col0] = true;
+                int row0 = rowForCol[col0];
+                long delta = Long.MAX_VALUE;
+                int col1 = 0;
+
+                for (int col = 1; col <= cols; col++) {
+                    if (used[col]) {
+                        continue;
+                    }
+                    long slack = cost[row0 - 1][col - 1] - rowPotential[row0] - colPotential[col];
+                    if (slack < minSlack[col]) {
+                        minSlack[col] = slack;
+                        way[col] = col0;
+                    }
+                    if (minSlack[col] < delta) {
+                        delta = minSlack[col];
+                        col1 = col;
+                    }
+                }
+
+                for (int col = 0; col <= cols; col++) {
+                    if (used[col]) {
+                        rowPotential[rowForCol[col]] += delta;
+                        colPotential[col] -= delta;
+                    } else {
+                        minSlack[col] -= delta;
+                    }
+                }
+                col0 = col1;
+            } while (rowForCol[col0] != 0);
+
+            do {
+                int col1 = way[col0];
+                rowForCol[col0] = rowForCol[col1];
+                col0 = col1;
+            } while (col0 != 0);
+        }
+
+        int[] assignment = new int[rows];
+        for (int col = 1; col <= cols; col++) {
+            if (rowForCol[col] != 0) {
+                assignment[rowForCol[col] - 1] = col - 1;
+            }
+        }
+        return assignment;
+    }
+}
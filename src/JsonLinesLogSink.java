@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.io.Writer;
+
+public class JsonLinesLogSink implements LogSink {
+    private final Writer out;
+    private final StringBuilder line;
+
+    public JsonLinesLogSink(Writer out) {
+        this.out = out;
+        this.line = new StringBuilder(160);
+    }
+
+    @Override
+    public void write(LogEvent event) throws IOException {
+        line.setLength(0);
+        line.append("{\"ts\":").append(event.timestampNanos)
+                .append(",\"type\":\"").append(event.type.name()).append('"');
+
+        if (event.elevatorId != 0) {
+            line.append(",\"elevator\":").append(event.elevatorId);
+        }
+        if (event.floor != 0) {
+            line.append(",\"floor\":").append(event.floor);
+        }
+        if (event.toFloor != 0) {
+            line.append(",\"to\":").append(event.toFloor);
+        }
+        if (event.value != 0) {
+            line.append(",\"value\":").append(event.value);
+        }
+        if (event.capacity != 0) {
+            line.append(",\"capacity\":").append(event.capacity);
+        }
+        if (event.direction != null) {
+            line.append(",\"dir\":\"").append(event.direction.name()).append('"');
+        }
+        if (event.message != null) {
+            line.append(",\"msg\":\"");
+            appendEscaped(event.message, line);
+            line.append('"');
+        }
+        line.append("}\n");
+        out.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static void appendEscaped(String text, StringBuilder sb) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.Objects;
+
+public final class KinematicProfile {
+    public static final KinematicProfile LEGACY = new KinematicProfile("legacy", 3.5, 3.5 * 1000 / Elevator.FLOOR_TRAVEL_TIME_MS,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Elevator.DOOR_OPEN_TIME_MS, Elevator.DOOR_CLOSE_TIME_MS);
+    public static final KinematicProfile LOW_RISE = new KinematicProfile("low-rise", 3.5, 1.0, 0.8, 1.2, 2000, 1000);
+    public static final KinematicProfile MID_RISE = new KinematicProfile("mid-rise", 3.5, 2.5, 1.0, 1.5, 2000, 1000);
+    public static final KinematicProfile HIGH_RISE = new KinematicProfile("high-rise", 3.5, 4.0, 1.2, 1.8, 2000, 1000);
+    public static final KinematicProfile EXPRESS = new KinematicProfile("express", 3.5, 7.0, 1.2, 2.0, 2500, 1500,
+            1500, 75, 0.45, 0.85, 0.6, 700);
+
+    private static final double DEFAULT_CAR_MASS_KG = 1000;
+    private static final double DEFAULT_PASSENGER_MASS_KG = 75;
+    private static final double DEFAULT_BALANCE_RATIO = 0.45;
+    private static final double DEFAULT_MOTOR_EFFICIENCY = 0.8;
+    private static final double DEFAULT_REGEN_EFFICIENCY = 0.5;
+    private static final double DEFAULT_FRICTION_NEWTONS = 500;
+
+    private final String name;
+    private final double floorHeightMeters;
+    private final double maxSpeed;
+    private final double acceleration;
+    private final double jerk;
+    private final long doorOpenMillis;
+    private final long doorCloseMillis;
+    private final double carMassKg;
+    private final double passengerMassKg;
+    private final double balanceRatio;
+    private final double motorEfficiency;
+    private final double regenEfficiency;
+    private final double frictionNewtons;
+
+    public KinematicProfile(String name, double floorHeightMeters, double maxSpeed, double acceleration, double jerk,
+                            long doorOpenMillis, long doorCloseMillis) {
+        this(name, floorHeightMeters, maxSpeed, acceleration, jerk, doorOpenMillis, doorCloseMillis,
+                DEFAULT_CAR_MASS_KG, DEFAULT_PASSENGER_MASS_KG, DEFAULT_BALANCE_RATIO,
+                DEFAULT_MOTOR_EFFICIENCY, DEFAULT_REGEN_EFFICIENCY, DEFAULT_FRICTION_NEWTONS);
+    }
+
+    public KinematicProfile(String name, double floorHeightMeters, double maxSpeed, double acceleration, double jerk,
+                            long doorOpenMillis, long doorCloseMillis, double carMassKg, double passengerMassKg,
+                            double balanceRatio, double motorEfficiency, double regenEfficiency, double frictionNewtons) {
+        if (floorHeightMeters <= 0 || maxSpeed <= 0 || acceleration <= 0 || jerk <= 0) {
+            throw new IllegalArgumentException("Kinematic limits must be positive: " + name);
+        }
+        if (motorEfficiency <= 0 || motorEfficiency > 1 || regenEfficiency < 0 || regenEfficiency > 1) {
+            throw new IllegalArgumentException("Drive efficiencies must be within (0, 1]: " + name);
+        }
+        this.name = name;
+        this.floorHeightMeters = floorHeightMeters;
+        this.maxSpeed = maxSpeed;
+        this.acceleration = acceleration;
+        this.jerk = jerk;
+        this.doorOpenMillis = doorOpenMillis;
+        this.doorCloseMillis = doorCloseMillis;
+        this.carMassKg = carMassKg;
+        this.passengerMassKg = passengerMassKg;
+        this.balanceRatio = balanceRatio;
+        this.motorEfficiency = motorEfficiency;
+        this.regenEfficiency = regenEfficiency;
+        this.frictionNewtons = frictionNewtons;
+    }
+
+    public static KinematicProfile named(String name) {
+        switch (name.toLowerCase()) {
+            case "legacy":
+                return LEGACY;
+            case "low-rise":
+                return LOW_RISE;
+            case "mid-rise":
+                return MID_RISE;
+            case "high-rise":
+                return HIGH_RISE;
+            case "express":
+                return EXPRESS;
+            default:
+                throw new IllegalArgumentException("Unknown kinematic profile: " + name);
+        }
+    }
+
+    public KinematicProfile withoutRegeneration() {
+        return new KinematicProfile(name + "-noregen", floorHeightMeters, maxSpeed, acceleration, jerk, doorOpenMillis,
+                doorCloseMillis, carMassKg, passengerMassKg, balanceRatio, motorEfficiency, 0, frictionNewtons);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getFloorHeightMeters() {
+        return floorHeightMeters;
+    }
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    public double getJerk() {
+        return jerk;
+    }
+
+    public boolean isConstantSpeed() {
+        return Double.isInfinite(acceleration);
+    }
+
+    public long getDoorOpenMillis() {
+        return doorOpenMillis;
+    }
+
+    public long getDoorCloseMillis() {
+        return doorCloseMillis;
+    }
+
+    public double getCarMassKg() {
+        return carMassKg;
+    }
+
+    public double getPassengerMassKg() {
+        return passengerMassKg;
+    }
+
+    public double getBalanceRatio() {
+        return balanceRatio;
+    }
+
+    public double getMotorEfficiency() {
+        return motorEfficiency;
+    }
+
+    public double getRegenEfficiency() {
+        return regenEfficiency;
+    }
+
+    public double getFrictionNewtons() {
+        return frictionNewtons;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof KinematicProfile)) {
+            return false;
+        }
+        KinematicProfile that = (KinematicProfile) other;
+        return name.equals(that.name)
+                && Double.compare(floorHeightMeters, that.floorHeightMeters) == 0
+                && Double.compare(maxSpeed, that.maxSpeed) == 0
+                && Double.compare(acceleration, that.acceleration) == 0
+                && Double.compare(jerk, that.jerk) == 0
+                && doorOpenMillis == that.doorOpenMillis
+                && doorCloseMillis == that.doorCloseMillis
+                && Double.compare(carMassKg, that.carMassKg) == 0
+                && Double.compare(passengerMassKg, that.passengerMassKg) == 0
+                && Double.compare(balanceRatio, that.balanceRatio) == 0
+                && Double.compare(motorEfficiency, that.motorEfficiency) == 0
+                && Double.compare(regenEfficiency, that.regenEfficiency) == 0
+                && Double.compare(frictionNewtons, that.frictionNewtons) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, floorHeightMeters, maxSpeed, acceleration, jerk, doorOpenMillis, doorCloseMillis,
+                carMassKg, passengerMassKg, balanceRatio, motorEfficiency, regenEfficiency, frictionNewtons);
+    }
+
+    @Override
+    public String toString() {
+        return isConstantSpeed() ? name + " (" + maxSpeed + " m/s constant)"
+                : String.format("%s (%.1f m/s, %.1f m/s2, %.1f m/s3)", name, maxSpeed, acceleration, jerk);
+    }
+}
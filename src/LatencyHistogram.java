@@ -0,0 +1,99 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_LOG_EXPONENT = 7;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - FIRST_LOG_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalSum;
+    private final LongAccumulator maxValue;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new LongAdder();
+        this.totalSum = new LongAdder();
+        this.maxValue = new LongAccumulator(Math::max, 0);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalSum.add(value);
+        maxValue.accumulate(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return (count == 0) ? 0 : (double) totalSum.sum() / count;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public HistogramSnapshot snapshot() {
+        return new HistogramSnapshot(getCount(), getMean(), getMax(),
+                getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(95),
+                getValueAtPercentile(99), getValueAtPercentile(99.9));
+    }
+
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.reset();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - FIRST_LOG_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_LOG_EXPONENT;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
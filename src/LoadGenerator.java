@@ -0,0 +1,62 @@
+import java.util.Random;
+
+public class LoadGenerator {
+    private final DiscreteEventScheduler scheduler;
+    private final ElevatorSystem system;
+    private final TrafficPattern pattern;
+    private final Random random;
+    private long endTimeMillis;
+    private long generatedRequests;
+
+    public LoadGenerator(DiscreteEventScheduler scheduler, ElevatorSystem system, TrafficPattern pattern, long seed) {
+        this.scheduler = scheduler;
+        this.system = system;
+        this.pattern = pattern;
+        this.random = new Random(seed);
+    }
+
+    public void start(long durationMillis) {
+        endTimeMillis = scheduler.currentTimeMillis() + durationMillis;
+        scheduleNextArrival(scheduler.currentTimeMillis());
+    }
+
+    public long getGeneratedRequests() {
+        return generatedRequests;
+    }
+
+    private void scheduleNextArrival(long fromMillis) {
+        double maxRate = pattern.getMaxArrivalRate();
+        if (maxRate <= 0) {
+            return;
+        }
+
+        long time = fromMillis;
+        while (true) {
+            double gapSeconds = -Math.log(1 - random.nextDouble()) / maxRate;
+            time += Math.max(1, Math.round(gapSeconds * 1000));
+            if (time >= endTimeMillis) {
+                return;
+            }
+            if (random.nextDouble() * maxRate <= pattern.getArrivalRate(time)) {
+                break;
+            }
+        }
+
+        long arrivalTime = time;
+        scheduler.scheduleAt(arrivalTime, () -> {
+            generateRequest(arrivalTime);
+            scheduleNextArrival(arrivalTime);
+        });
+    }
+
+    private void generateRequest(long timeMillis) {
+        int[] trip = pattern.sampleTrip(random, timeMillis);
+        if (trip == null) {
+            return;
+        }
+
+        Direction direction = (trip[1] > trip[0]) ? Direction.UP : Direction.DOWN;
+        system.requestElevator(trip[0], direction, trip[1]);
+        generatedRequests++;
+    }
+}
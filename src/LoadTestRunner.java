@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class LoadTestRunner {
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+    private static final long MAX_DRAIN_TIME_MS = 3_600_000;
+    private static final Set<String> OPTIONS = Set.of("--pattern", "--minutes", "--elevators", "--floors", "--capacity",
+            "--rate", "--seed", "--strategy", "--shards", "--queue-capacity", "--overflow", "--trace", "--fault", "--repair",
+            "--batch-window", "--profile");
+
+    public static void main(String[] args) {
+        String patternName = "up-peak";
+        int minutes = 60;
+        int elevators = 6;
+        int floors = 20;
+        int capacity = 8;
+        double rate = 0.5;
+        long seed = 1;
+        String strategyName = "nearest";
+        boolean batch = false;
+        long batchWindowMillis = ElevatorSystemConfig.DEFAULT_BATCH_WINDOW_MS;
+        boolean parking = false;
+        String profiles = "legacy";
+        int shards = 1;
+        Path tracePath = null;
+        int queueCapacity = RequestQueue.DEFAULT_CAPACITY;
+        RequestOverflowPolicy overflowPolicy = RequestOverflowPolicy.BLOCK;
+        List<Fault> faults = new ArrayList<>();
+        long repairMillis = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                printUsage();
+                return;
+            }
+            if (option.equals("--batch")) {
+                batch = true;
+                continue;
+            }
+            if (option.equals("--parking")) {
+                parking = true;
+                continue;
+            }
+            if (!OPTIONS.contains(option)) {
+                System.err.println("Unknown option: " + option);
+                printUsage();
+                return;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + option);
+                printUsage();
+                return;
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--pattern":
+                        patternName = value;
+                        break;
+                    case "--minutes":
+                        minutes = parsePositive(value);
+                        break;
+                    case "--elevators":
+                        elevators = Integer.parseInt(value);
+                        break;
+                    case "--floors":
+                        floors = Integer.parseInt(value);
+                        break;
+                    case "--capacity":
+                        capacity = Integer.parseInt(value);
+                        break;
+                    case "--rate":
+                        rate = Double.parseDouble(value);
+                        if (!(rate > 0)) {
+                            throw new IllegalArgumentException("Rate must be positive: " + value);
+                        }
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--strategy":
+                        strategyName = value;
+                        break;
+                    case "--shards":
+                        shards = parsePositive(value);
+                        break;
+                    case "--queue-capacity":
+                        queueCapacity = parsePositive(value);
+                        break;
+                    case "--overflow":
+                        overflowPolicy = RequestOverflowPolicy.valueOf(value.toUpperCase());
+                        break;
+                    case "--trace":
+                        tracePath = Path.of(value);
+                        break;
+                    case "--fault":
+                        for (String spec : value.split(",")) {
+                            faults.add(Fault.parse(spec));
+                        }
+                        break;
+                    case "--repair":
+                        repairMillis = (long) (Double.parseDouble(value) * 60_000);
+                        break;
+                    case "--batch-window":
+                        batch = true;
+                        batchWindowMillis = Long.parseLong(value);
+                        if (batchWindowMillis < 0) {
+                            throw new IllegalArgumentException("Batch window must not be negative: " + value);
+                        }
+                        break;
+                    default:
+                        profiles = value;
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: Invalid value for " + option + ": " + value);
+                return;
+            }
+        }
+
+        if (elevators < 1 || floors < 2 || capacity < 1) {
+            System.err.println("Error: Building needs at least 1 elevator, 2 floors and a capacity of 1");
+            return;
+        }
+        for (Fault fault : faults) {
+            if (fault.elevatorId < 1 || fault.elevatorId > elevators) {
+                System.err.println("Error: Invalid value for --fault: no elevator " + fault.elevatorId + " (1-" + elevators + ")");
+                return;
+            }
+        }
+
+        TrafficPattern pattern;
+        ElevatorSystemConfig config;
+        try {
+            pattern = TrafficPattern.named(patternName, floors, rate);
+            config = new ElevatorSystemConfig(elevators, floors, capacity)
+                    .setDispatchStrategy(DispatchStrategy.named(strategyName, floors, elevators))
+                    .setBatchDispatch(batch)
+                    .setBatchWindowMillis(batchWindowMillis)
+                    .setParking(parking)
+                    .setShardCount(shards)
+                    .setRequestQueueCapacity(queueCapacity)
+                    .setRequestOverflowPolicy(overflowPolicy)
+                    .setKinematicProfiles(profiles);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return;
+        }
+
+        Logger.setLevel(LogLevel.WARN);
+        long startNanos = System.nanoTime();
+
+        TripStatistics statistics;
+        try {
+            List<Fault> scheduled = new ArrayList<>();
+            for (Fault fault : faults) {
+                scheduled.add(new Fault(fault.elevatorId, fault.atMillis, repairMillis));
+            }
+            statistics = run(config, pattern, minutes * 60_000L, seed, tracePath, scheduled);
+        } catch (IOException e) {
+            System.out.println("Error: Could not record trace: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("=== Load test: " + patternName + ", " + minutes + " min, " + elevators + " cars, "
+                + floors + " floors, " + rate + " arrivals/s, strategy " + strategyName + (batch ? " (batched, " + batchWindowMillis + " ms window)" : "") + (parking ? ", parking" : "") + (shards > 1 ? ", " + shards + " shards" : "")
+                + (profiles.equals("legacy") ? "" : ", profile " + profiles) + " ===");
+        System.out.println(statistics.report());
+        System.out.printf("Simulated in %.2f s wall time%n", (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    private static int parsePositive(String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < 1) {
+            throw new IllegalArgumentException("Value must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: loadtest [--pattern uniform|up-peak|lunch|down-peak|office-day] [--minutes N]"
+                + " [--elevators N] [--floors N] [--capacity N] [--rate arrivals/s] [--seed N]"
+                + " [--strategy nearest|eta|eta-grouped|zoning|eta-energy[:ms-per-Wh]] [--batch] [--batch-window ms] [--parking] [--shards N] [--trace file]"
+                + " [--profile legacy|low-rise|mid-rise|high-rise|express[,...]]"
+                + " [--queue-capacity N] [--overflow reject|coalesce|block] [--fault car@minute[,...]] [--repair minutes]");
+    }
+
+    public static TripStatistics run(ElevatorSystemConfig config, TrafficPattern pattern, long durationMillis, long seed) {
+        try {
+            return run(config, pattern, durationMillis, seed, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static TripStatistics run(ElevatorSystemConfig config, TrafficPattern pattern, long durationMillis, long seed,
+                                     Path tracePath) throws IOException {
+        return run(config, pattern, durationMillis, seed, tracePath, List.of());
+    }
+
+    public static TripStatistics run(ElevatorSystemConfig config, TrafficPattern pattern, long durationMillis, long seed,
+                                     Path tracePath, List<Fault> faults) throws IOException {
+        DiscreteEventScheduler scheduler = new DiscreteEventScheduler();
+        ElevatorSystem system = new ElevatorSystem(config.setScheduler(scheduler));
+        TripStatistics statistics = new TripStatistics();
+        system.addEventListener(statistics);
+        if (tracePath != null) {
+            system.startTrace(tracePath);
+        }
+        system.start();
+
+        LoadGenerator generator = new LoadGenerator(scheduler, system, pattern, seed);
+        generator.start(durationMillis);
+        scheduleSampling(scheduler, system, statistics, durationMillis);
+        for (Fault fault : faults) {
+            Elevator elevator = system.getElevators().get(fault.elevatorId - 1);
+            scheduler.scheduleAt(fault.atMillis, elevator::injectFault);
+            if (fault.repairAfterMillis >= 0) {
+                scheduler.scheduleAt(fault.atMillis + fault.repairAfterMillis, elevator::restoreService);
+            }
+        }
+
+        scheduler.runUntil(durationMillis);
+        long drainDeadline = durationMillis + MAX_DRAIN_TIME_MS;
+        HealthMonitor health = system.getHealthMonitor();
+        while (statistics.getOutstandingTrips() > health.getStrandedPassengers() && scheduler.currentTimeMillis() < drainDeadline) {
+            scheduler.runFor(SAMPLE_INTERVAL_MS * 60);
+        }
+
+        system.shutdown();
+        return statistics;
+    }
+
+    static void scheduleSampling(DiscreteEventScheduler scheduler, ElevatorSystem system,
+                                         TripStatistics statistics, long durationMillis) {
+        scheduler.schedule(SAMPLE_INTERVAL_MS, () -> {
+            statistics.sampleUtilization(system.getElevators());
+            if (scheduler.currentTimeMillis() < durationMillis) {
+                scheduleSampling(scheduler, system, statistics, durationMillis);
+            }
+        });
+    }
+
+    public static final class Fault {
+        private final int elevatorId;
+        private final long atMillis;
+        private final long repairAfterMillis;
+
+        public Fault(int elevatorId, long atMillis, long repairAfterMillis) {
+            this.elevatorId = elevatorId;
+            this.atMillis = atMillis;
+            this.repairAfterMillis = repairAfterMillis;
+        }
+
+        static Fault parse(String spec) {
+            int at = spec.indexOf('@');
+            if (at < 0) {
+                throw new IllegalArgumentException("Fault must be car@minute: " + spec);
+            }
+            int elevatorId = Integer.parseInt(spec.substring(0, at).trim());
+            long atMillis = (long) (Double.parseDouble(spec.substring(at + 1).trim()) * 60_000);
+            if (atMillis < 0) {
+                throw new IllegalArgumentException("Fault minute must not be negative: " + spec);
+            }
+            return new Fault(elevatorId, atMillis, -1);
+        }
+    }
+}
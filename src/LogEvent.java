@@ -0,0 +1,60 @@
+public final class LogEvent {
+    long sequence;
+    LogEventType type;
+    long timestampNanos;
+    int elevatorId;
+    int floor;
+    int toFloor;
+    int value;
+    int capacity;
+    Direction direction;
+    String message;
+
+    void clear() {
+        type = null;
+        timestampNanos = 0;
+        elevatorId = 0;
+        floor = 0;
+        toFloor = 0;
+        value = 0;
+        capacity = 0;
+        direction = null;
+        message = null;
+    }
+
+    public LogEventType getType() {
+        return type;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    public int getToFloor() {
+        return toFloor;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
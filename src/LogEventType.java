@@ -0,0 +1,26 @@
+public enum LogEventType {
+    REQUEST(LogLevel.INFO),
+    ASSIGNED(LogLevel.INFO),
+    MOVING(LogLevel.INFO),
+    ARRIVED(LogLevel.INFO),
+    DOORS_OPEN(LogLevel.INFO),
+    DOORS_CLOSE(LogLevel.INFO),
+    IDLE(LogLevel.INFO),
+    SYSTEM(LogLevel.INFO),
+    ELEVATOR_STARTED(LogLevel.INFO),
+    ELEVATOR_STOPPED(LogLevel.INFO),
+    TARGET_ADDED(LogLevel.DEBUG),
+    PASSENGERS_EXITED(LogLevel.DEBUG),
+    PASSENGERS_ENTERED(LogLevel.DEBUG),
+    LOAD(LogLevel.DEBUG);
+
+    private final LogLevel level;
+
+    LogEventType(LogLevel level) {
+        this.level = level;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,6 @@
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    OFF
+}
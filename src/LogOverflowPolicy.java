@@ -0,0 +1,4 @@
+public enum LogOverflowPolicy {
+    DROP,
+    BLOCK
+}
@@ -0,0 +1,7 @@
+import java.io.IOException;
+
+public interface LogSink {
+    void write(LogEvent event) throws IOException;
+
+    void flush() throws IOException;
+}
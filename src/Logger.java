@@ -1,43 +1,277 @@
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 public class Logger {
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final long WRITER_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final LogEvent[] slots = new LogEvent[BUFFER_SIZE];
+    private static final AtomicLongArray published = new AtomicLongArray(BUFFER_SIZE);
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long consumed;
+
+    private static volatile LogLevel level = LogLevel.DEBUG;
+    private static volatile LogOverflowPolicy overflowPolicy = LogOverflowPolicy.DROP;
+    private static volatile LogSink sink = new TextLogSink(System.out);
+    private static final SimulationClock DEFAULT_CLOCK = new RealTimeClock();
+    private static final ThreadLocal<SimulationClock> threadClock = new ThreadLocal<>();
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            slots[i] = new LogEvent();
+            published.set(i, -1);
+        }
+
+        writer = new Thread(Logger::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "log-flush"));
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setOverflowPolicy(LogOverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    public static LogOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public static void setSink(LogSink newSink) {
+        flush();
+        sink = newSink;
+    }
+
+    public static SimulationClock setThreadClock(SimulationClock newClock) {
+        SimulationClock previous = threadClock.get();
+        if (newClock == null) {
+            threadClock.remove();
+        } else {
+            threadClock.set(newClock);
+        }
+        return previous;
+    }
+
+    public static boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.ordinal() >= level.ordinal() && level != LogLevel.OFF;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public static void flush() {
+        long target = claimed.get();
+        while (consumed < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        flushSink();
+    }
 
     public static void log(String message) {
-        String timestamp = LocalTime.now().format(TIME_FORMATTER);
-        System.out.println("[" + timestamp + "] " + message);
+        LogEvent event = claim(LogEventType.SYSTEM);
+        if (event != null) {
+            event.message = message;
+            publish(event);
+        }
     }
 
     public static void logRequest(PassengerRequest request) {
-        log("REQUEST: " + request);
+        LogEvent event = claim(LogEventType.REQUEST);
+        if (event != null) {
+            event.floor = request.getFromFloor();
+            event.direction = request.getDirection();
+            event.toFloor = request.getToFloor();
+            publish(event);
+        }
     }
 
     public static void logElevatorAssignment(int elevatorId, PassengerRequest request) {
-        log("ASSIGNED: Elevator " + elevatorId + " -> " + request);
+        LogEvent event = claim(LogEventType.ASSIGNED);
+        if (event != null) {
+            event.elevatorId = elevatorId;
+            event.floor = request.getFromFloor();
+            event.direction = request.getDirection();
+            event.toFloor = request.getToFloor();
+            publish(event);
+        }
     }
 
     public static void logElevatorMovement(int elevatorId, Direction direction, int fromFloor, int toFloor) {
-        log("MOVING: Elevator " + elevatorId + " " + direction + " from floor " + fromFloor + " to " + toFloor);
+        LogEvent event = claim(LogEventType.MOVING);
+        if (event != null) {
+            event.elevatorId = elevatorId;
+            event.direction = direction;
+            event.floor = fromFloor;
+            event.toFloor = toFloor;
+            publish(event);
+        }
     }
 
     public static void logElevatorArrival(int elevatorId, int floor) {
-        log("ARRIVED: Elevator " + elevatorId + " at floor " + floor);
+        logFloorEvent(LogEventType.ARRIVED, elevatorId, floor, 0);
     }
 
     public static void logDoorsOpen(int elevatorId, int floor) {
-        log("DOORS_OPEN: Elevator " + elevatorId + " at floor " + floor);
+        logFloorEvent(LogEventType.DOORS_OPEN, elevatorId, floor, 0);
     }
 
     public static void logDoorsClose(int elevatorId, int floor) {
-        log("DOORS_CLOSE: Elevator " + elevatorId + " at floor " + floor);
+        logFloorEvent(LogEventType.DOORS_CLOSE, elevatorId, floor, 0);
     }
 
     public static void logElevatorIdle(int elevatorId, int floor) {
-        log("IDLE: Elevator " + elevatorId + " waiting at floor " + floor);
+        logFloorEvent(LogEventType.IDLE, elevatorId, floor, 0);
+    }
+
+    public static void logTargetAdded(int elevatorId, int floor) {
+        logFloorEvent(LogEventType.TARGET_ADDED, elevatorId, floor, 0);
+    }
+
+    public static void logPassengersExited(int elevatorId, int floor, int count) {
+        logFloorEvent(LogEventType.PASSENGERS_EXITED, elevatorId, floor, count);
+    }
+
+    public static void logPassengersEntered(int elevatorId, int floor, int count) {
+        logFloorEvent(LogEventType.PASSENGERS_ENTERED, elevatorId, floor, count);
+    }
+
+    public static void logElevatorLoad(int elevatorId, int passengers, int capacity) {
+        LogEvent event = claim(LogEventType.LOAD);
+        if (event != null) {
+            event.elevatorId = elevatorId;
+            event.value = passengers;
+            event.capacity = capacity;
+            publish(event);
+        }
+    }
+
+    public static void logElevatorStarted(int elevatorId, int capacity) {
+        LogEvent event = claim(LogEventType.ELEVATOR_STARTED);
+        if (event != null) {
+            event.elevatorId = elevatorId;
+            event.capacity = capacity;
+            publish(event);
+        }
+    }
+
+    public static void logElevatorStopped(int elevatorId) {
+        logFloorEvent(LogEventType.ELEVATOR_STOPPED, elevatorId, 0, 0);
     }
 
     public static void logSystemEvent(String event) {
-        log("SYSTEM: " + event);
+        log(event);
+    }
+
+    private static void logFloorEvent(LogEventType type, int elevatorId, int floor, int value) {
+        LogEvent event = claim(type);
+        if (event != null) {
+            event.elevatorId = elevatorId;
+            event.floor = floor;
+            event.value = value;
+            publish(event);
+        }
+    }
+
+    private static LogEvent claim(LogEventType type) {
+        if (!isEnabled(type.getLevel())) {
+            return null;
+        }
+
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= BUFFER_SIZE) {
+                if (overflowPolicy == LogOverflowPolicy.DROP) {
+                    dropped.incrementAndGet();
+                    return null;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                continue;
+            }
+
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                LogEvent event = slots[(int) (sequence & BUFFER_MASK)];
+                event.clear();
+                event.type = type;
+                event.sequence = sequence;
+                SimulationClock clock = threadClock.get();
+                event.timestampNanos = (clock != null ? clock : DEFAULT_CLOCK).currentTimeNanos();
+                return event;
+            }
+        }
+    }
+
+    private static void publish(LogEvent event) {
+        published.set((int) (event.sequence & BUFFER_MASK), event.sequence);
+    }
+
+    private static void drainLoop() {
+        LogEvent dropNotice = new LogEvent();
+        long reportedDrops = 0;
+        boolean unflushed = false;
+
+        while (true) {
+            long sequence = consumed;
+            int index = (int) (sequence & BUFFER_MASK);
+
+            if (published.get(index) != sequence) {
+                long drops = dropped.get();
+                if (drops > reportedDrops && isEnabled(LogLevel.WARN)) {
+                    reportDrops(dropNotice, drops - reportedDrops, drops);
+                    unflushed = true;
+                }
+                reportedDrops = drops;
+                if (unflushed) {
+                    flushSink();
+                    unflushed = false;
+                }
+                LockSupport.parkNanos(WRITER_IDLE_PARK_NANOS);
+                continue;
+            }
+
+            try {
+                sink.write(slots[index]);
+            } catch (IOException | RuntimeException e) {
+                dropped.incrementAndGet();
+            }
+            consumed = sequence + 1;
+            unflushed = true;
+        }
+    }
+
+    private static void reportDrops(LogEvent notice, long newlyDropped, long totalDropped) {
+        notice.clear();
+        notice.type = LogEventType.SYSTEM;
+        notice.timestampNanos = DEFAULT_CLOCK.currentTimeNanos();
+        notice.message = newlyDropped + " log event(s) dropped while the log buffer was full (" + totalDropped + " total)";
+        try {
+            sink.write(notice);
+        } catch (IOException | RuntimeException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static void flushSink() {
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+        }
     }
 }
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+public class LongSamples {
+    private long[] values;
+    private int size;
+    private boolean sorted;
+
+    public LongSamples() {
+        this.values = new long[1024];
+        this.size = 0;
+        this.sorted = true;
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+        sorted = false;
+    }
+
+    public void addAll(LongSamples other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        sorted = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long percentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return values[Math.max(0, Math.min(size - 1, rank))];
+    }
+
+    public double mean() {
+        if (size == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum / size;
+    }
+}
@@ -1,24 +1,85 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
 import java.util.Random;
 import java.util.Scanner;
 
 public class Main {
-    private static final int NUMBER_OF_ELEVATORS = 3;
-    private static final int NUMBER_OF_FLOORS = 10;
-    private static final int ELEVATOR_CAPACITY = 8;
-
     public static void main(String[] args) {
-        ElevatorSystem system = new ElevatorSystem(NUMBER_OF_ELEVATORS, NUMBER_OF_FLOORS, ELEVATOR_CAPACITY);
+        if (args.length > 0 && args[0].equalsIgnoreCase("loadtest")) {
+            LoadTestRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("sweep")) {
+            SweepRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("replay")) {
+            TraceReplayer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("headless")) {
+            HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        ElevatorSystemConfig config;
+        try {
+            config = ElevatorSystemConfig.fromProperties(new Properties());
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                if (args[i].equalsIgnoreCase("--config")) {
+                    config = ElevatorSystemConfig.load(Path.of(args[i + 1]));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: Invalid configuration: " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase("--journal")) {
+                config.setJournalDirectory(Path.of(args[i + 1]));
+            } else if (args[i].equalsIgnoreCase("--journal-sync")) {
+                config.setJournalDirectory(Path.of(args[i + 1])).setJournalSync(true);
+            } else if (args[i].equalsIgnoreCase("--log-overflow")) {
+                try {
+                    Logger.setOverflowPolicy(LogOverflowPolicy.valueOf(args[i + 1].toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error: Unknown log overflow policy " + args[i + 1] + ", expected drop or block");
+                }
+            }
+        }
+        ElevatorSystem system = new ElevatorSystem(config);
         system.start();
 
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase("--metrics-port")) {
+                try {
+                    system.startMetricsServer(Integer.parseInt(args[i + 1]));
+                } catch (IOException | NumberFormatException e) {
+                    System.out.println("Error: Could not start metrics endpoint: " + e.getMessage());
+                }
+            } else if (args[i].equalsIgnoreCase("--trace")) {
+                try {
+                    system.startTrace(Path.of(args[i + 1]));
+                } catch (IOException e) {
+                    System.out.println("Error: Could not start trace recording: " + e.getMessage());
+                }
+            }
+        }
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("\n=== Elevator Control System ===");
         System.out.println("Commands:");
         System.out.println("  <from> <to> - Request elevator (e.g., 3 7)");
         System.out.println("  auto <count> - Generate random requests");
         System.out.println("  status - Show elevator status");
-        System.out.println("  quit - Exit system");
+        System.out.println("  metrics - Show metrics snapshot");
+        System.out.println("  fault <id> / repair <id> - Inject or clear an elevator fault");
+        System.out.println("  quit [seconds] - Exit system, optionally finishing in-flight trips first");
         System.out.println("================================\n");
 
+        long drainMillis = 0;
         boolean running = true;
         while (running) {
             System.out.print("> ");
@@ -31,20 +92,49 @@ public class Main {
 
             if (parts[0].equalsIgnoreCase("quit")) {
                 running = false;
+                if (parts.length == 2) {
+                    try {
+                        drainMillis = Math.round(Double.parseDouble(parts[1]) * 1000);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error: Invalid drain time, shutting down immediately");
+                    }
+                }
             } else if (parts[0].equalsIgnoreCase("status")) {
                 displayStatus(system);
+            } else if (parts[0].equalsIgnoreCase("metrics")) {
+                System.out.println(system.getMetricsSnapshot().toPrometheusText());
+            } else if ((parts[0].equalsIgnoreCase("fault") || parts[0].equalsIgnoreCase("repair")) && parts.length == 2) {
+                handleFault(system, parts[0].equalsIgnoreCase("fault"), parts[1]);
             } else if (parts[0].equalsIgnoreCase("auto") && parts.length == 2) {
                 handleAutoRequests(system, parts[1]);
             } else if (parts.length == 2) {
                 handleSimpleRequest(system, parts);
             } else {
-                System.out.println("Invalid command. Use: <from> <to>, auto <count>, status, or quit");
+                System.out.println("Invalid command. Use: <from> <to>, auto <count>, status, metrics, fault <id>, repair <id>, or quit");
             }
         }
 
-        system.shutdown();
+        ShutdownReport report = system.shutdown(drainMillis);
         scanner.close();
-        System.out.println("System terminated");
+        System.out.println("System terminated: " + report);
+    }
+
+    private static void handleFault(ElevatorSystem system, boolean inject, String idText) {
+        try {
+            int id = Integer.parseInt(idText);
+            if (id < 1 || id > system.getNumberOfElevators()) {
+                System.out.println("Error: No elevator " + id);
+                return;
+            }
+            Elevator elevator = system.getElevators().get(id - 1);
+            if (inject) {
+                elevator.injectFault();
+            } else {
+                elevator.restoreService();
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Please enter a valid elevator id");
+        }
     }
 
     private static void handleSimpleRequest(ElevatorSystem system, String[] parts) {
@@ -58,7 +148,12 @@ public class Main {
             }
 
             Direction direction = (toFloor > fromFloor) ? Direction.UP : Direction.DOWN;
-            system.requestElevator(fromFloor, direction, toFloor);
+            SubmitResult result = system.requestElevator(fromFloor, direction, toFloor);
+            if (result == SubmitResult.CLOSED) {
+                System.out.println("Error: Request not accepted, system is shutting down");
+            } else if (result == SubmitResult.REJECTED || result == SubmitResult.TIMED_OUT) {
+                System.out.println("Error: Request not accepted, dispatch queue is full (" + result + ")");
+            }
         } catch (NumberFormatException e) {
             System.out.println("Error: Invalid floor number");
         }
@@ -70,10 +165,10 @@ public class Main {
             Random random = new Random();
 
             for (int i = 0; i < count; i++) {
-                int fromFloor = random.nextInt(NUMBER_OF_FLOORS) + 1;
+                int fromFloor = random.nextInt(system.getNumberOfFloors()) + 1;
                 int toFloor;
                 do {
-                    toFloor = random.nextInt(NUMBER_OF_FLOORS) + 1;
+                    toFloor = random.nextInt(system.getNumberOfFloors()) + 1;
                 } while (toFloor == fromFloor);
 
                 Direction direction = (toFloor > fromFloor) ? Direction.UP : Direction.DOWN;
@@ -98,15 +193,17 @@ public class Main {
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
         System.out.println("║                    ELEVATOR STATUS                        ║");
         System.out.println("╠═══════════════════════════════════════════════════════════╣");
-        for (Elevator elevator : system.getElevators()) {
+        FleetSnapshot snapshot = system.getFleetSnapshot();
+        for (ElevatorState state : snapshot.getStates()) {
             System.out.printf("║ Elevator %-2d │ Floor: %-2d │ Direction: %-4s │ Status: %-11s │ Passengers: %d/%-2d ║%n",
-                    elevator.getId(),
-                    elevator.getCurrentFloor(),
-                    elevator.getDirection(),
-                    elevator.getStatus(),
-                    elevator.getCurrentPassengers(),
-                    elevator.getMaxCapacity());
+                    state.getElevatorId(),
+                    state.getCurrentFloor(),
+                    state.getDirection(),
+                    state.getStatus(),
+                    state.getCurrentPassengers(),
+                    state.getMaxCapacity());
         }
-        System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        System.out.println("Snapshot version " + snapshot.getVersion() + "\n");
     }
 }
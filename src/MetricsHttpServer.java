@@ -0,0 +1,84 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+public class MetricsHttpServer {
+    private final HttpServer server;
+    private final MetricsRegistry registry;
+    private final FleetMonitor fleetMonitor;
+
+    public MetricsHttpServer(MetricsRegistry registry, int port) throws IOException {
+        this(registry, null, port);
+    }
+
+    public MetricsHttpServer(MetricsRegistry registry, FleetMonitor fleetMonitor, int port) throws IOException {
+        this.registry = registry;
+        this.fleetMonitor = fleetMonitor;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/metrics", this::handleMetrics);
+        if (fleetMonitor != null) {
+            this.server.createContext("/fleet", this::handleFleet);
+        }
+    }
+
+    public void start() {
+        server.start();
+        Logger.logSystemEvent("Metrics endpoint listening on http://localhost:" + getPort() + "/metrics");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] body = registry.snapshot().toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void handleFleet(HttpExchange exchange) throws IOException {
+        FleetSnapshot snapshot = fleetMonitor.getSnapshot();
+        long since = parseSince(exchange.getRequestURI().getQuery());
+        if (since >= snapshot.getVersion()) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = snapshot.toJson().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("ETag", "\"" + snapshot.getVersion() + "\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static long parseSince(String query) {
+        if (query == null) {
+            return -1;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("since=")) {
+                try {
+                    return Long.parseLong(parameter.substring("since=".length()));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
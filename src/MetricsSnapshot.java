@@ -0,0 +1,92 @@
+import java.util.Collections;
+import java.util.Map;
+
+public final class MetricsSnapshot {
+    private final long timestampMillis;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    public MetricsSnapshot(long timestampMillis, Map<String, Long> counters, Map<String, Long> gauges,
+                           Map<String, HistogramSnapshot> histograms) {
+        this.timestampMillis = timestampMillis;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public long getGauge(String name) {
+        return gauges.getOrDefault(name, 0L);
+    }
+
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+        String lastFamily = null;
+
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            String family = familyOf(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                sb.append("# TYPE ").append(family).append(" counter\n");
+                lastFamily = family;
+            }
+            sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        for (Map.Entry<String, Long> entry : gauges.entrySet()) {
+            String family = familyOf(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                sb.append("# TYPE ").append(family).append(" gauge\n");
+                lastFamily = family;
+            }
+            sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        for (Map.Entry<String, HistogramSnapshot> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            HistogramSnapshot histogram = entry.getValue();
+            sb.append("# TYPE ").append(name).append(" summary\n");
+            appendQuantile(sb, name, "0.5", histogram.getP50());
+            appendQuantile(sb, name, "0.9", histogram.getP90());
+            appendQuantile(sb, name, "0.95", histogram.getP95());
+            appendQuantile(sb, name, "0.99", histogram.getP99());
+            appendQuantile(sb, name, "0.999", histogram.getP999());
+            sb.append(name).append("_sum ").append(Math.round(histogram.getMean() * histogram.getCount())).append('\n');
+            sb.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendQuantile(StringBuilder sb, String name, String quantile, long value) {
+        sb.append(name).append("{quantile=\"").append(quantile).append("\"} ").append(value).append('\n');
+    }
+
+    private static String familyOf(String name) {
+        int labels = name.indexOf('{');
+        return (labels < 0) ? name : name.substring(0, labels);
+    }
+}
@@ -0,0 +1,37 @@
+public class NearestCarStrategy implements DispatchStrategy {
+    private static final long WRONG_DIRECTION_PENALTY = 100;
+    private static final long QUEUED_CALL_PENALTY = 3;
+
+    @Override
+    public long cost(ElevatorState state, PassengerRequest request) {
+        int currentFloor = state.getCurrentFloor();
+        Direction elevatorDirection = state.getDirection();
+        int requestFloor = request.getFromFloor();
+        Direction requestDirection = request.getDirection();
+
+        boolean parking = state.getStatus() == ElevatorStatus.MOVING && state.getPendingStops() == 0;
+        if (elevatorDirection == Direction.IDLE || parking) {
+            return Math.abs(currentFloor - requestFloor);
+        }
+
+        if (elevatorDirection == requestDirection) {
+            if (elevatorDirection == Direction.UP && requestFloor >= currentFloor) {
+                return requestFloor - currentFloor;
+            } else if (elevatorDirection == Direction.DOWN && requestFloor <= currentFloor) {
+                return currentFloor - requestFloor;
+            }
+        }
+
+        return Math.abs(currentFloor - requestFloor) + WRONG_DIRECTION_PENALTY;
+    }
+
+    @Override
+    public long queuedCallPenalty(ElevatorState state) {
+        return QUEUED_CALL_PENALTY;
+    }
+
+    @Override
+    public String getName() {
+        return "nearest-car";
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ParkingPlanner implements ElevatorEventListener {
+    static final long DEFAULT_REPLAN_INTERVAL_MS = 30_000;
+    static final long DEFAULT_LOOKAHEAD_MS = 5 * 60_000L;
+    static final double MIN_DEMAND = 3.0;
+    static final double MIN_GAIN = 0.5;
+
+    private final int maxFloor;
+    private final DemandHistogram demand;
+    private final long replanIntervalMillis;
+    private final long lookaheadMillis;
+    private final ReentrantLock lock;
+    private final ElevatorState[] states;
+    private final int[] parkingFloors;
+    private final double[] weights;
+    private final int[] distances;
+    private final int[] demandedFloors;
+    private final int[] parkable;
+    private boolean stale;
+    private long plannedAt;
+    private long plans;
+
+    public ParkingPlanner(int maxFloor, List<Elevator> elevators) {
+        this(new DemandHistogram(maxFloor), elevators, DEFAULT_REPLAN_INTERVAL_MS, DEFAULT_LOOKAHEAD_MS);
+    }
+
+    public ParkingPlanner(DemandHistogram demand, List<Elevator> elevators, long replanIntervalMillis, long lookaheadMillis) {
+        this.maxFloor = demand.getMaxFloor();
+        this.demand = demand;
+        this.replanIntervalMillis = replanIntervalMillis;
+        this.lookaheadMillis = lookaheadMillis;
+        this.lock = new ReentrantLock();
+        this.states = new ElevatorState[elevators.size()];
+        for (Elevator elevator : elevators) {
+            states[elevator.getId() - 1] = elevator.getState();
+        }
+        this.parkingFloors = new int[states.length];
+        Arrays.fill(parkingFloors, -1);
+        this.weights = new double[maxFloor + 1];
+        this.distances = new int[maxFloor + 1];
+        this.demandedFloors = new int[maxFloor];
+        this.parkable = new int[states.length];
+        this.stale = true;
+    }
+
+    public int parkingFloor(int elevatorId, long timeMillis) {
+        lock.lock();
+        try {
+            if (stale || timeMillis - plannedAt >= replanIntervalMillis) {
+                replan(timeMillis);
+            }
+            return parkingFloors[elevatorId - 1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPlanCount() {
+        lock.lock();
+        try {
+            return plans;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            demand.record(request.getFromFloor(), timeMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onElevatorStateChange(ElevatorState state, long timeMillis) {
+        lock.lock();
+        try {
+            int slot = state.getElevatorId() - 1;
+            if (isParkable(states[slot]) != isParkable(state)) {
+                stale = true;
+            }
+            states[slot] = state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isParkable(ElevatorState state) {
+        return state.getPendingStops() == 0 && state.getCurrentPassengers() == 0 && state.getAssignedPassengers() == 0
+                && state.getStatus() != ElevatorStatus.DOORS_OPEN && state.isInService();
+    }
+
+    private void replan(long timeMillis) {
+        stale = false;
+        plannedAt = timeMillis;
+        plans++;
+        Arrays.fill(parkingFloors, -1);
+
+        int count = 0;
+        for (int slot = 0; slot < states.length; slot++) {
+            if (isParkable(states[slot])) {
+                parkable[count++] = slot;
+            }
+        }
+        if (count == 0 || demand.forecast(timeMillis, lookaheadMillis, weights) < MIN_DEMAND) {
+            return;
+        }
+
+        int[] floors = chooseFloors(count);
+        int placed = floors.length;
+        if (placed == 0) {
+            return;
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = parkable[i];
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(states[a].getCurrentFloor(), states[b].getCurrentFloor()));
+        Arrays.sort(floors);
+
+        // Cars and floors lie on a line, so the cheapest matching keeps both in sorted order; the table only
+        // decides which cars stay put when there are more idle cars than useful parking floors.
+        long[][] cost = new long[count + 1][placed + 1];
+        for (int j = 1; j <= placed; j++) {
+            cost[0][j] = Long.MAX_VALUE;
+        }
+        for (int i = 1; i <= count; i++) {
+            int floor = states[order[i - 1]].getCurrentFloor();
+            for (int j = 1; j <= placed; j++) {
+                long skip = cost[i - 1][j];
+                long take = (cost[i - 1][j - 1] == Long.MAX_VALUE) ? Long.MAX_VALUE
+                        : cost[i - 1][j - 1] + Math.abs(floor - floors[j - 1]);
+                cost[i][j] = Math.min(skip, take);
+            }
+        }
+        for (int i = count, j = placed; j > 0; i--) {
+            if (cost[i][j] != cost[i - 1][j]) {
+                parkingFloors[order[i - 1]] = floors[j - 1];
+                j--;
+            }
+        }
+    }
+
+    private int[] chooseFloors(int count) {
+        int demandFloors = 0;
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            if (weights[floor] > 0) {
+                demandedFloors[demandFloors++] = floor;
+                distances[floor] = maxFloor;
+            }
+        }
+
+        // Greedy weighted k-median: an optimal parking floor always sits on a floor that has demand, and a car
+        // is only placed while it still shortens the expected distance to the next call by MIN_GAIN floors.
+        int[] chosen = new int[Math.min(count, demandFloors)];
+        int placed = 0;
+        while (placed < chosen.length) {
+            int bestFloor = -1;
+            double bestGain = MIN_GAIN;
+            for (int c = 0; c < demandFloors; c++) {
+                int candidate = demandedFloors[c];
+                double gain = 0;
+                for (int f = 0; f < demandFloors; f++) {
+                    int floor = demandedFloors[f];
+                    int reduction = distances[floor] - Math.abs(floor - candidate);
+                    if (reduction > 0) {
+                        gain += weights[floor] * reduction;
+                    }
+                }
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestFloor = candidate;
+                }
+            }
+            if (bestFloor == -1) {
+                break;
+            }
+
+            chosen[placed++] = bestFloor;
+            for (int f = 0; f < demandFloors; f++) {
+                int floor = demandedFloors[f];
+                distances[floor] = Math.min(distances[floor], Math.abs(floor - bestFloor));
+            }
+        }
+        return Arrays.copyOf(chosen, placed);
+    }
+}
@@ -3,12 +3,27 @@ public class PassengerRequest {
     private final Direction direction;
     private final int toFloor;
     private final long timestamp;
+    private volatile int assignedElevatorId;
+    private volatile long assignedTime;
+    private volatile long pickupTime;
+    private volatile long dropOffTime;
+    private volatile int handOffs;
+    private volatile long journalSequence;
 
     public PassengerRequest(int fromFloor, Direction direction, int toFloor) {
+        this(fromFloor, direction, toFloor, System.currentTimeMillis());
+    }
+
+    public PassengerRequest(int fromFloor, Direction direction, int toFloor, long timestamp) {
         this.fromFloor = fromFloor;
         this.direction = direction;
         this.toFloor = toFloor;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
+        this.assignedElevatorId = 0;
+        this.assignedTime = -1;
+        this.pickupTime = -1;
+        this.dropOffTime = -1;
+        this.journalSequence = -1;
     }
 
     public int getFromFloor() {
@@ -27,6 +42,59 @@ public class PassengerRequest {
         return timestamp;
     }
 
+    public int getAssignedElevatorId() {
+        return assignedElevatorId;
+    }
+
+    public long getAssignedTime() {
+        return assignedTime;
+    }
+
+    public long getPickupTime() {
+        return pickupTime;
+    }
+
+    public long getDropOffTime() {
+        return dropOffTime;
+    }
+
+    public long getWaitTime() {
+        return (pickupTime < 0) ? -1 : pickupTime - timestamp;
+    }
+
+    public long getJourneyTime() {
+        return (dropOffTime < 0) ? -1 : dropOffTime - timestamp;
+    }
+
+    public int getHandOffs() {
+        return handOffs;
+    }
+
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    void markHandedOff() {
+        handOffs++;
+    }
+
+    void markAssigned(int elevatorId, long timeMillis) {
+        this.assignedElevatorId = elevatorId;
+        this.assignedTime = timeMillis;
+    }
+
+    void markPickedUp(long timeMillis) {
+        this.pickupTime = timeMillis;
+    }
+
+    void markDroppedOff(long timeMillis) {
+        this.dropOffTime = timeMillis;
+    }
+
     @Override
     public String toString() {
         return "Request{from=" + fromFloor + ", dir=" + direction + ", to=" + toFloor + "}";
@@ -0,0 +1,24 @@
+public class RealTimeClock implements SimulationClock {
+    private final long originMillis;
+    private final long originNanos;
+
+    public RealTimeClock() {
+        this.originMillis = System.currentTimeMillis();
+        this.originNanos = System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long currentTimeNanos() {
+        return originMillis * 1_000_000L + (System.nanoTime() - originNanos);
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,421 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+public class RequestIngestor {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+    private static final int MAX_DIGITS = 9;
+    private static final byte[] FROM = ascii("from");
+    private static final byte[] FROM_FLOOR = ascii("fromFloor");
+    private static final byte[] TO = ascii("to");
+    private static final byte[] TO_FLOOR = ascii("toFloor");
+    private static final byte[] DIRECTION = ascii("direction");
+    private static final byte[] DIR = ascii("dir");
+    private static final byte[] UP = ascii("up");
+    private static final byte[] U = ascii("u");
+    private static final byte[] DOWN = ascii("down");
+    private static final byte[] D = ascii("d");
+
+    private final ElevatorSystem system;
+    private final PrintStream out;
+    private final CommandHandler commands;
+    private final byte[] buffer;
+
+    private long lines;
+    private long accepted;
+    private long rejected;
+    private long invalid;
+    private long malformed;
+    private boolean stopped;
+
+    private int cursor;
+    private int fromFloor;
+    private int toFloor;
+    private Direction direction;
+
+    public RequestIngestor(ElevatorSystem system, PrintStream out) {
+        this(system, out, null);
+    }
+
+    public RequestIngestor(ElevatorSystem system, PrintStream out, CommandHandler commands) {
+        this.system = system;
+        this.out = out;
+        this.commands = commands;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public void ingest(InputStream in) throws IOException {
+        int length = 0;
+        boolean overlong = false;
+        while (!stopped) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                if (length > 0 && !overlong) {
+                    handleLine(0, length);
+                }
+                break;
+            }
+
+            int scanFrom = length;
+            length += read;
+            int lineStart = 0;
+            for (int i = scanFrom; i < length && !stopped; i++) {
+                if (buffer[i] == '\n') {
+                    if (overlong) {
+                        overlong = false;
+                    } else {
+                        handleLine(lineStart, i);
+                    }
+                    lineStart = i + 1;
+                }
+            }
+
+            if (lineStart == 0 && length == buffer.length) {
+                if (!overlong) {
+                    lines++;
+                    malformed++;
+                    report("line exceeds " + BUFFER_SIZE + " bytes");
+                }
+                overlong = true;
+                length = 0;
+            } else {
+                System.arraycopy(buffer, lineStart, buffer, 0, length - lineStart);
+                length -= lineStart;
+            }
+            if (in.available() == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private void handleLine(int start, int end) {
+        lines++;
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        int i = skipSpaces(start, end);
+        if (i == end || buffer[i] == '#') {
+            return;
+        }
+
+        byte first = buffer[i];
+        boolean parsed;
+        if (first == '{') {
+            parsed = parseJson(i + 1, end);
+        } else if (first == '-' || isDigit(first)) {
+            parsed = parseCsv(i, end);
+        } else {
+            handleCommand(i, end);
+            return;
+        }
+
+        if (!parsed) {
+            malformed++;
+            report("malformed request");
+            return;
+        }
+        submit();
+    }
+
+    private void handleCommand(int start, int end) {
+        if (commands == null) {
+            if (lines > 1) {
+                malformed++;
+                report("malformed request");
+            }
+            return;
+        }
+        String command = new String(buffer, start, trimEnd(start, end) - start, StandardCharsets.UTF_8);
+        if (!commands.handle(command, this, out)) {
+            stopped = true;
+        }
+        out.flush();
+    }
+
+    private void submit() {
+        Direction requested = (direction != null) ? direction : (toFloor > fromFloor) ? Direction.UP : Direction.DOWN;
+        SubmitResult result = system.requestElevator(fromFloor, requested, toFloor);
+        if (result.isAccepted()) {
+            accepted++;
+            return;
+        }
+
+        if (result == SubmitResult.INVALID) {
+            invalid++;
+        } else {
+            rejected++;
+        }
+        report(result.name());
+        if (result == SubmitResult.CLOSED) {
+            stopped = true;
+        }
+    }
+
+    private boolean parseCsv(int start, int end) {
+        cursor = start;
+        direction = null;
+        fromFloor = parseInt(end);
+        if (fromFloor == NO_VALUE || !skipSeparator(end)) {
+            return false;
+        }
+        toFloor = parseInt(end);
+        if (toFloor == NO_VALUE) {
+            return false;
+        }
+
+        int tokenEnd = trimEnd(cursor, end);
+        if (cursor == tokenEnd) {
+            return true;
+        }
+        if (!skipSeparator(tokenEnd)) {
+            return false;
+        }
+        direction = parseDirection(cursor, tokenEnd);
+        return direction != null;
+    }
+
+    private boolean parseJson(int start, int end) {
+        cursor = start;
+        fromFloor = NO_VALUE;
+        toFloor = NO_VALUE;
+        direction = null;
+
+        while (true) {
+            cursor = skipSpaces(cursor, end);
+            if (cursor >= end || buffer[cursor] != '"') {
+                return false;
+            }
+            int keyStart = ++cursor;
+            while (cursor < end && buffer[cursor] != '"') {
+                cursor++;
+            }
+            if (cursor >= end) {
+                return false;
+            }
+            int keyEnd = cursor++;
+
+            cursor = skipSpaces(cursor, end);
+            if (cursor >= end || buffer[cursor] != ':') {
+                return false;
+            }
+            cursor = skipSpaces(cursor + 1, end);
+            if (cursor >= end) {
+                return false;
+            }
+
+            if (matches(keyStart, keyEnd, FROM) || matches(keyStart, keyEnd, FROM_FLOOR)) {
+                fromFloor = parseInt(end);
+                if (fromFloor == NO_VALUE) {
+                    return false;
+                }
+            } else if (matches(keyStart, keyEnd, TO) || matches(keyStart, keyEnd, TO_FLOOR)) {
+                toFloor = parseInt(end);
+                if (toFloor == NO_VALUE) {
+                    return false;
+                }
+            } else if (matches(keyStart, keyEnd, DIRECTION) || matches(keyStart, keyEnd, DIR)) {
+                int valueStart = cursor + 1;
+                if (buffer[cursor] != '"' || !skipString(end)) {
+                    return false;
+                }
+                direction = parseDirection(valueStart, cursor - 1);
+                if (direction == null) {
+                    return false;
+                }
+            } else if (!skipValue(end)) {
+                return false;
+            }
+
+            cursor = skipSpaces(cursor, end);
+            if (cursor >= end) {
+                return false;
+            }
+            if (buffer[cursor] == '}') {
+                cursor++;
+                break;
+            }
+            if (buffer[cursor] != ',') {
+                return false;
+            }
+            cursor++;
+        }
+        return fromFloor != NO_VALUE && toFloor != NO_VALUE && skipSpaces(cursor, end) == end;
+    }
+
+    private int parseInt(int end) {
+        boolean negative = cursor < end && buffer[cursor] == '-';
+        int i = negative ? cursor + 1 : cursor;
+        int digitsStart = i;
+        int value = 0;
+        while (i < end && isDigit(buffer[i])) {
+            if (i - digitsStart == MAX_DIGITS) {
+                return NO_VALUE;
+            }
+            value = value * 10 + (buffer[i] - '0');
+            i++;
+        }
+        if (i == digitsStart) {
+            return NO_VALUE;
+        }
+        cursor = i;
+        return negative ? -value : value;
+    }
+
+    private boolean skipSeparator(int end) {
+        int start = cursor;
+        cursor = skipSpaces(cursor, end);
+        if (cursor < end && (buffer[cursor] == ',' || buffer[cursor] == ';')) {
+            cursor = skipSpaces(cursor + 1, end);
+        }
+        return cursor > start && cursor < end;
+    }
+
+    private boolean skipString(int end) {
+        cursor++;
+        while (cursor < end) {
+            byte b = buffer[cursor++];
+            if (b == '\\') {
+                cursor++;
+            } else if (b == '"') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean skipValue(int end) {
+        byte first = buffer[cursor];
+        if (first == '"') {
+            return skipString(end);
+        }
+        if (first != '{' && first != '[') {
+            while (cursor < end && buffer[cursor] != ',' && buffer[cursor] != '}') {
+                cursor++;
+            }
+            return true;
+        }
+
+        int depth = 0;
+        while (cursor < end) {
+            byte b = buffer[cursor];
+            if (b == '"') {
+                if (!skipString(end)) {
+                    return false;
+                }
+                continue;
+            }
+            cursor++;
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Direction parseDirection(int start, int end) {
+        if (matchesIgnoreCase(start, end, UP) || matchesIgnoreCase(start, end, U)) {
+            return Direction.UP;
+        }
+        if (matchesIgnoreCase(start, end, DOWN) || matchesIgnoreCase(start, end, D)) {
+            return Direction.DOWN;
+        }
+        return null;
+    }
+
+    private boolean matches(int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesIgnoreCase(int start, int end, byte[] lowerCaseKey) {
+        if (end - start != lowerCaseKey.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseKey.length; i++) {
+            if ((buffer[start + i] | 0x20) != lowerCaseKey[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipSpaces(int i, int end) {
+        while (i < end && (buffer[i] == ' ' || buffer[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && (buffer[end - 1] == ' ' || buffer[end - 1] == '\t')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private void report(String message) {
+        out.print("ERR ");
+        out.print(lines);
+        out.print(' ');
+        out.println(message);
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public long getRequests() {
+        return accepted + rejected + invalid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d lines: %d accepted, %d rejected, %d invalid, %d malformed",
+                lines, accepted, rejected, invalid, malformed);
+    }
+
+    public interface CommandHandler {
+        boolean handle(String command, RequestIngestor ingestor, PrintStream out);
+    }
+}
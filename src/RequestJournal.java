@@ -0,0 +1,681 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RequestJournal implements ElevatorEventListener, Runnable, AutoCloseable {
+    public static final long DEFAULT_SEGMENT_SIZE = 8L * 1024 * 1024;
+    public static final long DEFAULT_COMMIT_INTERVAL_MS = 2;
+
+    static final int MAGIC = 0x454C564A;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 32;
+    static final int COMPACT_AFTER_SEGMENTS = 4;
+    static final int OVERFLOW_RECORDS = 1024;
+
+    static final byte SUBMIT = 1;
+    static final byte PICKUP = 2;
+    static final byte DROP_OFF = 3;
+    static final byte CANCEL = 4;
+    static final byte ARRIVAL = 5;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long commitIntervalMillis;
+    private final ReentrantLock lock;
+    private final Condition committed;
+    private final Map<Long, PassengerRequest> live;
+    private final int[] carFloors;
+    private final ArrayDeque<Path> segments;
+    private final ArrayDeque<Segment> retired;
+    private Segment current;
+    private Segment spare;
+    private ByteBuffer overflow;
+    private long segmentNumber;
+    private long nextSequence;
+    private long written;
+    private long durable;
+    private long compactions;
+    private int compactedSegments;
+    private boolean compactionDue;
+    private volatile boolean running;
+    private boolean closed;
+
+    public RequestJournal(Path directory, Recovery recovered) throws IOException {
+        this(directory, recovered, DEFAULT_SEGMENT_SIZE, DEFAULT_COMMIT_INTERVAL_MS);
+    }
+
+    public RequestJournal(Path directory, Recovery recovered, long segmentSize, long commitIntervalMillis) throws IOException {
+        if (segmentSize < HEADER_SIZE + 2 * RECORD_SIZE || segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Journal segment size must be a multiple of " + RECORD_SIZE + ": " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.lock = new ReentrantLock();
+        this.committed = lock.newCondition();
+        this.live = new LinkedHashMap<>();
+        this.carFloors = recovered.carFloors.clone();
+        this.segments = new ArrayDeque<>(listSegments(directory));
+        this.retired = new ArrayDeque<>();
+        this.overflow = ByteBuffer.allocate(OVERFLOW_RECORDS * RECORD_SIZE);
+        this.segmentNumber = Math.max(recovered.lastSegment, lastSegmentNumber(segments));
+        this.nextSequence = recovered.nextSequence;
+        this.compactionDue = true;
+        this.running = true;
+
+        for (PassengerRequest request : recovered.waiting) {
+            live.put(request.getJournalSequence(), request);
+        }
+        for (List<PassengerRequest> riders : recovered.onBoard) {
+            for (PassengerRequest request : riders) {
+                live.put(request.getJournalSequence(), request);
+            }
+        }
+
+        flush();
+    }
+
+    public static Recovery recover(Path directory, int numberOfElevators) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<Long, PassengerRequest> live = new LinkedHashMap<>();
+        int[] carFloors = new int[numberOfElevators];
+        Arrays.fill(carFloors, 1);
+        long nextSequence = 0;
+        long events = 0;
+        long lastSegment = -1;
+
+        List<Path> files = Files.isDirectory(directory) ? listSegments(directory) : List.of();
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_SIZE) {
+                    continue;
+                }
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.getInt(0) != MAGIC || mapped.getShort(4) != VERSION) {
+                    throw new IOException("Not a request journal segment: " + file);
+                }
+                lastSegment = Math.max(lastSegment, mapped.getLong(8));
+
+                for (int position = HEADER_SIZE; position + RECORD_SIZE <= mapped.limit(); position += RECORD_SIZE) {
+                    byte type = mapped.get(position);
+                    if (type == 0 || mapped.getShort(position + 2) != checksum(mapped, position)) {
+                        break;
+                    }
+                    events++;
+                    long sequence = mapped.getLong(position + 16);
+                    if (sequence >= 0) {
+                        nextSequence = Math.max(nextSequence, sequence + 1);
+                    }
+                    replay(type, mapped, position, sequence, live, carFloors);
+                }
+            }
+        }
+
+        List<PassengerRequest> waiting = new ArrayList<>();
+        List<List<PassengerRequest>> onBoard = new ArrayList<>();
+        for (int i = 0; i < numberOfElevators; i++) {
+            onBoard.add(new ArrayList<>());
+        }
+        for (PassengerRequest request : live.values()) {
+            int car = request.getAssignedElevatorId();
+            if (request.getPickupTime() >= 0 && car >= 1 && car <= numberOfElevators) {
+                onBoard.get(car - 1).add(request);
+            } else {
+                waiting.add(request);
+            }
+        }
+        return new Recovery(waiting, onBoard, carFloors, nextSequence, lastSegment, events, files.size(),
+                System.nanoTime() - startNanos);
+    }
+
+    private static void replay(byte type, MappedByteBuffer mapped, int position, long sequence,
+                               Map<Long, PassengerRequest> live, int[] carFloors) {
+        int elevatorId = mapped.getInt(position + 4);
+        long timeMillis = mapped.getLong(position + 24);
+        switch (type) {
+            case SUBMIT:
+                if (!live.containsKey(sequence)) {
+                    PassengerRequest request = new PassengerRequest(mapped.getInt(position + 8),
+                            DIRECTIONS[mapped.get(position + 1)], mapped.getInt(position + 12), timeMillis);
+                    request.setJournalSequence(sequence);
+                    live.put(sequence, request);
+                }
+                break;
+            case PICKUP:
+                PassengerRequest rider = live.get(sequence);
+                if (rider != null) {
+                    rider.markAssigned(elevatorId, timeMillis);
+                    rider.markPickedUp(timeMillis);
+                }
+                break;
+            case DROP_OFF:
+            case CANCEL:
+                live.remove(sequence);
+                break;
+            case ARRIVAL:
+                if (elevatorId >= 1 && elevatorId <= carFloors.length) {
+                    carFloors[elevatorId - 1] = mapped.getInt(position + 8);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static long lastSegmentNumber(ArrayDeque<Path> files) {
+        if (files.isEmpty()) {
+            return 0;
+        }
+        String name = files.peekLast().getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static short checksum(ByteBuffer mapped, int position) {
+        int hash = mapped.get(position) * 31 + mapped.get(position + 1);
+        for (int offset = 4; offset < RECORD_SIZE; offset += 4) {
+            hash = hash * 0x01000193 ^ mapped.getInt(position + offset);
+        }
+        return (short) (hash ^ (hash >>> 16));
+    }
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            if (request.getJournalSequence() >= 0) {
+                return;
+            }
+            long sequence = nextSequence++;
+            request.setJournalSequence(sequence);
+            live.put(sequence, request);
+            append(SUBMIT, request.getDirection(), 0, request.getFromFloor(), request.getToFloor(), sequence,
+                    request.getTimestamp());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+        finish(CANCEL, 0, request, timeMillis);
+    }
+
+    @Override
+    public void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+        finish(CANCEL, 0, request, timeMillis);
+    }
+
+    @Override
+    public void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            if (request.getJournalSequence() >= 0) {
+                append(PICKUP, request.getDirection(), elevatorId, request.getFromFloor(), request.getToFloor(),
+                        request.getJournalSequence(), timeMillis);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+        finish(DROP_OFF, elevatorId, request, timeMillis);
+    }
+
+    @Override
+    public void onElevatorArrival(int elevatorId, int floor, long timeMillis) {
+        lock.lock();
+        try {
+            if (elevatorId >= 1 && elevatorId <= carFloors.length) {
+                carFloors[elevatorId - 1] = floor;
+            }
+            append(ARRIVAL, Direction.IDLE, elevatorId, floor, 0, -1, timeMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(byte type, int elevatorId, PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            long sequence = request.getJournalSequence();
+            if (sequence >= 0 && live.remove(sequence) != null) {
+                append(type, request.getDirection(), elevatorId, request.getFromFloor(), request.getToFloor(), sequence, timeMillis);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte type, Direction direction, int elevatorId, int first, int second, long sequence, long timeMillis) {
+        if (!closed) {
+            write(type, direction, elevatorId, first, second, sequence, timeMillis);
+        }
+    }
+
+    private void write(byte type, Direction direction, int elevatorId, int first, int second, long sequence, long timeMillis) {
+        ByteBuffer target = reserve();
+        int position = target.position();
+        target.put(position + 1, (byte) direction.ordinal());
+        target.putInt(position + 4, elevatorId);
+        target.putInt(position + 8, first);
+        target.putInt(position + 12, second);
+        target.putLong(position + 16, sequence);
+        target.putLong(position + 24, timeMillis);
+        target.put(position, type);
+        target.putShort(position + 2, checksum(target, position));
+        target.position(position + RECORD_SIZE);
+        written++;
+    }
+
+    private ByteBuffer reserve() {
+        if (overflow.position() == 0) {
+            if (current != null && current.buffer.remaining() >= RECORD_SIZE) {
+                return current.buffer;
+            }
+            if (spare != null) {
+                activateSpare();
+                return current.buffer;
+            }
+        }
+        if (overflow.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(overflow.capacity() * 2);
+            overflow.flip();
+            grown.put(overflow);
+            overflow = grown;
+        }
+        return overflow;
+    }
+
+    private void activateSpare() {
+        if (current != null) {
+            retired.addLast(current);
+        }
+        current = spare;
+        spare = null;
+        segments.addLast(current.file);
+    }
+
+    private void drainOverflow() {
+        overflow.flip();
+        while (overflow.hasRemaining() && current.buffer.remaining() >= RECORD_SIZE) {
+            int length = Math.min(overflow.remaining(), current.buffer.remaining() / RECORD_SIZE * RECORD_SIZE);
+            ByteBuffer chunk = overflow.slice(overflow.position(), length);
+            current.buffer.put(chunk);
+            overflow.position(overflow.position() + length);
+        }
+        overflow.compact();
+    }
+
+    private Segment openSegment(long number) throws IOException {
+        Path file = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(number);
+        buffer.position(HEADER_SIZE);
+        return new Segment(file, channel, buffer);
+    }
+
+    private void prepareSpare() throws IOException {
+        long number;
+        lock.lock();
+        try {
+            if (closed || spare != null) {
+                return;
+            }
+            number = ++segmentNumber;
+        } finally {
+            lock.unlock();
+        }
+
+        Segment created = openSegment(number);
+        lock.lock();
+        try {
+            if (!closed) {
+                spare = created;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        created.channel.close();
+        Files.deleteIfExists(created.file);
+    }
+
+    private void writeSnapshot() {
+        activateSpare();
+        for (int i = 0; i < carFloors.length; i++) {
+            write(ARRIVAL, Direction.IDLE, i + 1, carFloors[i], 0, -1, 0);
+        }
+        for (PassengerRequest request : live.values()) {
+            long sequence = request.getJournalSequence();
+            write(SUBMIT, request.getDirection(), 0, request.getFromFloor(), request.getToFloor(), sequence, request.getTimestamp());
+            if (request.getPickupTime() >= 0) {
+                write(PICKUP, request.getDirection(), request.getAssignedElevatorId(), request.getFromFloor(),
+                        request.getToFloor(), sequence, request.getPickupTime());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.max(1, commitIntervalMillis));
+                commit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    public void commit() {
+        try {
+            flush();
+        } catch (IOException e) {
+            lock.lock();
+            try {
+                closed = true;
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            Logger.logSystemEvent("Request journal " + directory + " stopped: " + e.getMessage());
+        }
+    }
+
+    private void flush() throws IOException {
+        List<Segment> full = new ArrayList<>();
+        List<Path> toDelete = new ArrayList<>();
+        MappedByteBuffer active;
+        long upTo;
+        boolean compacted = false;
+        while (true) {
+            prepareSpare();
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (spare == null) {
+                    continue;
+                }
+                if (overflow.position() > 0) {
+                    activateSpare();
+                    drainOverflow();
+                    if (overflow.position() > 0) {
+                        continue;
+                    }
+                } else if (!compacted && (compactionDue
+                        || segments.size() - compactedSegments >= Math.max(COMPACT_AFTER_SEGMENTS, compactedSegments))) {
+                    writeSnapshot();
+                    Path snapshot = current.file;
+                    while (segments.peekFirst() != snapshot) {
+                        toDelete.add(segments.pollFirst());
+                    }
+                    compactionDue = false;
+                    compacted = true;
+                    compactions++;
+                    if (overflow.position() > 0) {
+                        continue;
+                    }
+                }
+                if (compacted) {
+                    compactedSegments = segments.size();
+                }
+                full.addAll(retired);
+                retired.clear();
+                upTo = written;
+                active = (upTo > durable && current != null) ? current.buffer : null;
+            } finally {
+                lock.unlock();
+            }
+            break;
+        }
+
+        for (Segment segment : full) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        if (active != null) {
+            active.force();
+        }
+        lock.lock();
+        try {
+            durable = Math.max(durable, upTo);
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Path file : toDelete) {
+            Files.deleteIfExists(file);
+        }
+        prepareSpare();
+    }
+
+    public boolean awaitDurable(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            long target = written;
+            while (durable < target && !closed) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = committed.awaitNanos(remaining);
+            }
+            return durable >= target;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getLiveRequests() {
+        lock.lock();
+        try {
+            return live.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWrittenRecords() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCompactions() {
+        lock.lock();
+        try {
+            return compactions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getCommitIntervalMillis() {
+        return commitIntervalMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        flush();
+        List<Segment> open = new ArrayList<>();
+        Segment unused;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            open.addAll(retired);
+            retired.clear();
+            if (current != null) {
+                open.add(current);
+            }
+            if (overflow.position() > 0) {
+                Logger.logSystemEvent("Request journal " + directory + " closed with " + overflow.position() / RECORD_SIZE
+                        + " record(s) that never reached a segment");
+            }
+            unused = spare;
+            current = null;
+            spare = null;
+        } finally {
+            lock.unlock();
+        }
+
+        for (Segment segment : open) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        if (unused != null) {
+            unused.channel.close();
+            Files.deleteIfExists(unused.file);
+        }
+        lock.lock();
+        try {
+            durable = written;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    public static final class Recovery {
+        private final List<PassengerRequest> waiting;
+        private final List<List<PassengerRequest>> onBoard;
+        private final int[] carFloors;
+        private final long nextSequence;
+        private final long lastSegment;
+        private final long events;
+        private final int segments;
+        private final long elapsedNanos;
+
+        Recovery(List<PassengerRequest> waiting, List<List<PassengerRequest>> onBoard, int[] carFloors, long nextSequence,
+                 long lastSegment, long events, int segments, long elapsedNanos) {
+            this.waiting = waiting;
+            this.onBoard = onBoard;
+            this.carFloors = carFloors;
+            this.nextSequence = nextSequence;
+            this.lastSegment = Math.max(0, lastSegment);
+            this.events = events;
+            this.segments = segments;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<PassengerRequest> getWaiting() {
+            return waiting;
+        }
+
+        public List<PassengerRequest> getOnBoard(int elevatorId) {
+            return onBoard.get(elevatorId - 1);
+        }
+
+        public int getCarFloor(int elevatorId) {
+            return carFloors[elevatorId - 1];
+        }
+
+        public int getOnBoardCount() {
+            int count = 0;
+            for (List<PassengerRequest> riders : onBoard) {
+                count += riders.size();
+            }
+            return count;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public int getSegments() {
+            return segments;
+        }
+
+        public boolean isEmpty() {
+            return events == 0;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+}
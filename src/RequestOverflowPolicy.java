@@ -0,0 +1,5 @@
+public enum RequestOverflowPolicy {
+    REJECT,
+    COALESCE,
+    BLOCK
+}
@@ -0,0 +1,356 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RequestQueue {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final long DEFAULT_BLOCK_TIMEOUT_MS = 1000;
+
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final PassengerRequest CLOSED_SLOT = new PassengerRequest(0, Direction.IDLE, 0, 0);
+
+    private final int mask;
+    private final AtomicReferenceArray<PassengerRequest> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private final AtomicLong head;
+    private final RequestOverflowPolicy policy;
+    private final long blockTimeoutNanos;
+
+    private final AtomicIntegerArray queuedHallCalls;
+    private final ReentrantLock overflowLock;
+    private final Map<Integer, List<PassengerRequest>> riders;
+    private final ArrayDeque<PassengerRequest> released;
+    private final AtomicInteger riderCount;
+
+    private final AtomicLong rejected;
+    private final AtomicLong coalesced;
+    private volatile Thread waitingConsumer;
+    private volatile boolean closed;
+
+    public RequestQueue(int maxFloor) {
+        this(DEFAULT_CAPACITY, maxFloor, RequestOverflowPolicy.BLOCK, DEFAULT_BLOCK_TIMEOUT_MS);
+    }
+
+    public RequestQueue(int capacity, int maxFloor, RequestOverflowPolicy policy, long blockTimeoutMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Request queue capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.head = new AtomicLong();
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+
+        this.queuedHallCalls = new AtomicIntegerArray(2 * (maxFloor + 1));
+        this.overflowLock = new ReentrantLock();
+        this.riders = new HashMap<>();
+        this.released = new ArrayDeque<>();
+        this.riderCount = new AtomicInteger();
+
+        this.rejected = new AtomicLong();
+        this.coalesced = new AtomicLong();
+    }
+
+    public SubmitResult offer(PassengerRequest request) {
+        SubmitResult result = tryOffer(request);
+        return (result == SubmitResult.DEFERRED) ? awaitSlot(request) : result;
+    }
+
+    public SubmitResult tryOffer(PassengerRequest request) {
+        return tryOffer(request, true);
+    }
+
+    SubmitResult tryOffer(PassengerRequest request, boolean countRejection) {
+        if (closed) {
+            return SubmitResult.CLOSED;
+        }
+        SubmitResult result = tryEnqueue(request);
+        if (result != null) {
+            return result;
+        }
+
+        switch (policy) {
+            case COALESCE:
+                if (coalesce(request)) {
+                    coalesced.incrementAndGet();
+                    return SubmitResult.COALESCED;
+                }
+                break;
+            case BLOCK:
+                return SubmitResult.DEFERRED;
+            default:
+                break;
+        }
+        if (countRejection) {
+            rejected.incrementAndGet();
+        }
+        return SubmitResult.REJECTED;
+    }
+
+    public SubmitResult timeOut() {
+        rejected.incrementAndGet();
+        return SubmitResult.TIMED_OUT;
+    }
+
+    private SubmitResult awaitSlot(PassengerRequest request) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            wakeConsumer();
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            if (closed) {
+                return SubmitResult.CLOSED;
+            }
+            SubmitResult result = tryEnqueue(request);
+            if (result != null) {
+                return result;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return timeOut();
+    }
+
+    private SubmitResult tryEnqueue(PassengerRequest request) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        if (closed) {
+            sequences.set(index, position + 1);
+            return SubmitResult.CLOSED;
+        }
+        slots.set(index, request);
+        if (policy == RequestOverflowPolicy.COALESCE) {
+            queuedHallCalls.incrementAndGet(hallCallKey(request));
+        }
+        sequences.set(index, position + 1);
+        wakeConsumer();
+        return SubmitResult.ACCEPTED;
+    }
+
+    private boolean coalesce(PassengerRequest request) {
+        int key = hallCallKey(request);
+        overflowLock.lock();
+        try {
+            riderCount.incrementAndGet();
+            if (queuedHallCalls.get(key) == 0) {
+                riderCount.decrementAndGet();
+                return false;
+            }
+            riders.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+            return true;
+        } finally {
+            overflowLock.unlock();
+        }
+    }
+
+    public PassengerRequest poll() {
+        if (riderCount.get() > 0) {
+            PassengerRequest rider = pollReleasedRider();
+            if (rider != null) {
+                return rider;
+            }
+        }
+
+        PassengerRequest request;
+        do {
+            request = pollSlot();
+        } while (request == CLOSED_SLOT);
+        return request;
+    }
+
+    private PassengerRequest pollSlot() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        PassengerRequest request = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        if (request == null) {
+            return CLOSED_SLOT;
+        }
+
+        if (policy == RequestOverflowPolicy.COALESCE) {
+            int key = hallCallKey(request);
+            queuedHallCalls.decrementAndGet(key);
+            if (riderCount.get() > 0) {
+                releaseRiders(key);
+            }
+        }
+        return request;
+    }
+
+    public PassengerRequest poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            PassengerRequest request = poll();
+            if (request != null) {
+                return request;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return null;
+            }
+            park(remaining);
+        }
+    }
+
+    public PassengerRequest take() throws InterruptedException {
+        while (true) {
+            PassengerRequest request = poll();
+            if (request != null || closed) {
+                return request;
+            }
+            park(Long.MAX_VALUE);
+        }
+    }
+
+    public int drainTo(Collection<PassengerRequest> out) {
+        int drained = 0;
+        PassengerRequest request;
+        while ((request = poll()) != null) {
+            out.add(request);
+            drained++;
+        }
+        return drained;
+    }
+
+    public void close() {
+        closed = true;
+        long end = tail.get();
+        for (long position = Math.max(head.get(), end - capacity()); position < end; position++) {
+            int index = (int) (position & mask);
+            while (sequences.get(index) <= position) {
+                Thread.onSpinWait();
+            }
+        }
+        wakeConsumer();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get()) + riderCount.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public RequestOverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private void park(long nanos) throws InterruptedException {
+        waitingConsumer = Thread.currentThread();
+        try {
+            if (size() == 0 && !closed) {
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void wakeConsumer() {
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void releaseRiders(int key) {
+        overflowLock.lock();
+        try {
+            List<PassengerRequest> waiting = riders.remove(key);
+            if (waiting != null) {
+                released.addAll(waiting);
+            }
+        } finally {
+            overflowLock.unlock();
+        }
+    }
+
+    private PassengerRequest pollReleasedRider() {
+        overflowLock.lock();
+        try {
+            PassengerRequest rider = released.poll();
+            if (rider != null) {
+                riderCount.decrementAndGet();
+            }
+            return rider;
+        } finally {
+            overflowLock.unlock();
+        }
+    }
+
+    private static int hallCallKey(PassengerRequest request) {
+        return request.getFromFloor() * 2 + (request.getDirection() == Direction.UP ? 0 : 1);
+    }
+}
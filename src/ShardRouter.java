@@ -0,0 +1,27 @@
+import java.util.List;
+
+public class ShardRouter {
+    private final List<ElevatorDispatcher> shards;
+    private final int numberOfFloors;
+
+    public ShardRouter(List<ElevatorDispatcher> shards, int numberOfFloors) {
+        this.shards = List.copyOf(shards);
+        this.numberOfFloors = numberOfFloors;
+    }
+
+    public ElevatorDispatcher route(PassengerRequest request) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+        int zoneFloor = (request.getDirection() == Direction.UP) ? request.getToFloor() : request.getFromFloor();
+        return shards.get(shardOfFloor(zoneFloor));
+    }
+
+    public int shardOfFloor(int floor) {
+        return Math.min(shards.size() - 1, (floor - 1) * shards.size() / numberOfFloors);
+    }
+
+    public List<ElevatorDispatcher> getShards() {
+        return shards;
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.List;
+
+public class ShutdownReport {
+    private final int drainedRequests;
+    private final List<PassengerRequest> unassigned;
+    private final List<PassengerRequest> waiting;
+    private final List<PassengerRequest> onBoard;
+    private final boolean drainedToIdle;
+    private final boolean forced;
+    private final long elapsedNanos;
+
+    public ShutdownReport(int drainedRequests, List<PassengerRequest> unassigned, List<PassengerRequest> waiting,
+                          List<PassengerRequest> onBoard, boolean drainedToIdle, boolean forced, long elapsedNanos) {
+        this.drainedRequests = drainedRequests;
+        this.unassigned = List.copyOf(unassigned);
+        this.waiting = List.copyOf(waiting);
+        this.onBoard = List.copyOf(onBoard);
+        this.drainedToIdle = drainedToIdle;
+        this.forced = forced;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getDrainedRequests() {
+        return drainedRequests;
+    }
+
+    public List<PassengerRequest> getUnassigned() {
+        return unassigned;
+    }
+
+    public List<PassengerRequest> getWaiting() {
+        return waiting;
+    }
+
+    public List<PassengerRequest> getOnBoard() {
+        return onBoard;
+    }
+
+    public int getUnservedCount() {
+        return unassigned.size() + waiting.size() + onBoard.size();
+    }
+
+    public boolean isDrainedToIdle() {
+        return drainedToIdle;
+    }
+
+    public boolean isForced() {
+        return forced;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queued request(s) dispatched, %d unserved (%d unassigned, %d waiting, %d on board)%s, %.1f ms",
+                drainedRequests, getUnservedCount(), unassigned.size(), waiting.size(), onBoard.size(),
+                forced ? ", threads did not stop in time" : "", elapsedNanos / 1e6);
+    }
+}
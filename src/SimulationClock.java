@@ -0,0 +1,7 @@
+public interface SimulationClock {
+    long currentTimeMillis();
+
+    long currentTimeNanos();
+
+    void sleep(long millis) throws InterruptedException;
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+public final class StopPlanner {
+    private static final int[] EMPTY_ROUTE = new int[0];
+
+    private final StopSet scratch;
+    private int[] route;
+    private int head;
+    private int tail;
+    private int[] view;
+
+    public StopPlanner(int maxFloor) {
+        this.scratch = new StopSet(maxFloor);
+        this.route = new int[16];
+        this.view = EMPTY_ROUTE;
+    }
+
+    public static int firstStop(StopSet stops, int floor, Direction direction, boolean full) {
+        Direction sweep = (direction == Direction.DOWN) ? Direction.DOWN : Direction.UP;
+        int next = full ? nextStop(stops, floor, sweep, true) : -1;
+        return (next != -1) ? next : nextStop(stops, floor, sweep, false);
+    }
+
+    public int[] plan(StopSet stops, int floor, Direction direction, boolean full) {
+        head = 0;
+        tail = 0;
+        view = null;
+        if (stops.isEmpty()) {
+            return route();
+        }
+
+        scratch.copyFrom(stops);
+        int position = floor;
+        Direction travel = direction;
+        boolean carStopsOnly = full;
+        int remainingVisits = 3 * stops.size();
+
+        while (!scratch.isEmpty() && remainingVisits-- > 0) {
+            int next = firstStop(scratch, position, travel, carStopsOnly);
+            if (next == -1) {
+                break;
+            }
+
+            if (tail == route.length) {
+                route = Arrays.copyOf(route, tail * 2);
+            }
+            route[tail++] = next;
+
+            if (next != position) {
+                travel = (next > position) ? Direction.UP : Direction.DOWN;
+            }
+            serve(next, travel);
+            position = next;
+            carStopsOnly = false;
+        }
+
+        return route();
+    }
+
+    public int[] route() {
+        if (view == null) {
+            view = (head == tail) ? EMPTY_ROUTE : Arrays.copyOfRange(route, head, tail);
+        }
+        return view;
+    }
+
+    public boolean startsAt(int floor) {
+        return head < tail && route[head] == floor;
+    }
+
+    public boolean advance(int floor) {
+        if (head == tail || route[head] != floor) {
+            return false;
+        }
+        head++;
+        view = null;
+        return true;
+    }
+
+    public boolean insert(int floor, Direction hallCallDirection, int position, Direction direction) {
+        int previous = position;
+        Direction travel = (direction == Direction.DOWN) ? Direction.DOWN : Direction.UP;
+        for (int i = head; i < tail; i++) {
+            int next = route[i];
+            if (floor == previous || floor == next) {
+                return false;
+            }
+
+            Direction leg = (next > previous) ? Direction.UP : (next < previous) ? Direction.DOWN : travel;
+            if (leg != travel && ((travel == Direction.UP) ? floor > previous : floor < previous)) {
+                return false;
+            }
+            boolean onLeg = (leg == Direction.UP) ? previous < floor && floor < next : next < floor && floor < previous;
+            if (onLeg && hallCallDirection != (leg == Direction.UP ? Direction.DOWN : Direction.UP)) {
+                insertAt(i, floor);
+                return true;
+            }
+            travel = leg;
+            previous = next;
+        }
+        return false;
+    }
+
+    private void insertAt(int index, int floor) {
+        if (tail == route.length) {
+            if (head > 0) {
+                System.arraycopy(route, head, route, 0, tail - head);
+                index -= head;
+                tail -= head;
+                head = 0;
+            } else {
+                route = Arrays.copyOf(route, tail * 2);
+            }
+        }
+        System.arraycopy(route, index, route, index + 1, tail - index);
+        route[index] = floor;
+        tail++;
+        view = null;
+    }
+
+    private static int nextStop(StopSet stops, int position, Direction sweep, boolean carStopsOnly) {
+        Direction reverse = (sweep == Direction.UP) ? Direction.DOWN : Direction.UP;
+        if (carStopsOnly) {
+            int stop = stops.nextCarStop(position, sweep);
+            return (stop != -1) ? stop : stops.nextCarStop(position, reverse);
+        }
+
+        int stop = stops.nextStop(position, sweep);
+        return (stop != -1) ? stop : stops.nextStop(position, reverse);
+    }
+
+    private void serve(int floor, Direction travel) {
+        scratch.clear(floor, travel);
+        if (travel == Direction.UP && scratch.nextAtOrAbove(floor + 1) == -1) {
+            scratch.clear(floor, Direction.DOWN);
+        } else if (travel == Direction.DOWN && scratch.nextAtOrBelow(floor - 1) == -1) {
+            scratch.clear(floor, Direction.UP);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+public final class StopSet {
+    private final int maxFloor;
+    private final long[] carStops;
+    private final long[] upStops;
+    private final long[] downStops;
+    private final long[] anyStops;
+    private int size;
+
+    public StopSet(int maxFloor) {
+        int words = (maxFloor >>> 6) + 1;
+        this.maxFloor = maxFloor;
+        this.carStops = new long[words];
+        this.upStops = new long[words];
+        this.downStops = new long[words];
+        this.anyStops = new long[words];
+        this.size = 0;
+    }
+
+    public boolean add(int floor, Direction direction) {
+        long[] mask = maskFor(direction);
+        int word = floor >>> 6;
+        long bit = 1L << floor;
+
+        if ((mask[word] & bit) != 0) {
+            return false;
+        }
+        if ((anyStops[word] & bit) == 0) {
+            anyStops[word] |= bit;
+            size++;
+        }
+        mask[word] |= bit;
+        return true;
+    }
+
+    public void clear(int floor, Direction direction) {
+        int word = floor >>> 6;
+        long bit = 1L << floor;
+
+        carStops[word] &= ~bit;
+        if (direction == Direction.UP) {
+            upStops[word] &= ~bit;
+        } else if (direction == Direction.DOWN) {
+            downStops[word] &= ~bit;
+        } else {
+            upStops[word] &= ~bit;
+            downStops[word] &= ~bit;
+        }
+
+        if ((anyStops[word] & bit) != 0 && ((carStops[word] | upStops[word] | downStops[word]) & bit) == 0) {
+            anyStops[word] &= ~bit;
+            size--;
+        }
+    }
+
+    public void clearAll() {
+        Arrays.fill(carStops, 0);
+        Arrays.fill(upStops, 0);
+        Arrays.fill(downStops, 0);
+        Arrays.fill(anyStops, 0);
+        size = 0;
+    }
+
+    public void copyFrom(StopSet other) {
+        System.arraycopy(other.carStops, 0, carStops, 0, carStops.length);
+        System.arraycopy(other.upStops, 0, upStops, 0, upStops.length);
+        System.arraycopy(other.downStops, 0, downStops, 0, downStops.length);
+        System.arraycopy(other.anyStops, 0, anyStops, 0, anyStops.length);
+        size = other.size;
+    }
+
+    public boolean contains(int floor) {
+        return (anyStops[floor >>> 6] & (1L << floor)) != 0;
+    }
+
+    public boolean shouldStop(int floor, Direction travelDirection) {
+        return shouldStop(floor, travelDirection, true);
+    }
+
+    public boolean shouldStop(int floor, Direction travelDirection, boolean includeHallCalls) {
+        int word = floor >>> 6;
+        long bit = 1L << floor;
+        long mask = includeHallCalls ? carStops[word] | maskFor(travelDirection)[word] : carStops[word];
+        return (mask & bit) != 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int nextAtOrAbove(int floor) {
+        return nextSetBit(anyStops, anyStops, floor);
+    }
+
+    public int nextAtOrBelow(int floor) {
+        return previousSetBit(anyStops, anyStops, floor);
+    }
+
+    public int nextStop(int floor, Direction sweep) {
+        if (sweep == Direction.DOWN) {
+            int stop = previousSetBit(carStops, downStops, floor);
+            if (stop != -1) {
+                return stop;
+            }
+            int turnaround = nextSetBit(upStops, upStops, 0);
+            return (turnaround != -1 && turnaround <= floor) ? turnaround : -1;
+        }
+
+        int stop = nextSetBit(carStops, upStops, floor);
+        if (stop != -1) {
+            return stop;
+        }
+        int turnaround = previousSetBit(downStops, downStops, maxFloor);
+        return (turnaround >= floor) ? turnaround : -1;
+    }
+
+    public int nextCarStop(int floor, Direction sweep) {
+        if (sweep == Direction.DOWN) {
+            return previousSetBit(carStops, carStops, floor);
+        }
+        return nextSetBit(carStops, carStops, floor);
+    }
+
+    public int[] toArray() {
+        int[] floors = new int[size];
+        int index = 0;
+        for (int floor = nextAtOrAbove(0); floor != -1; floor = nextAtOrAbove(floor + 1)) {
+            floors[index++] = floor;
+        }
+        return floors;
+    }
+
+    private long[] maskFor(Direction direction) {
+        if (direction == Direction.UP) {
+            return upStops;
+        }
+        if (direction == Direction.DOWN) {
+            return downStops;
+        }
+        return carStops;
+    }
+
+    private static int nextSetBit(long[] first, long[] second, int fromFloor) {
+        if (fromFloor < 0) {
+            fromFloor = 0;
+        }
+        int index = fromFloor >>> 6;
+        if (index >= first.length) {
+            return -1;
+        }
+
+        long word = (first[index] | second[index]) & (-1L << fromFloor);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == first.length) {
+                return -1;
+            }
+            word = first[index] | second[index];
+        }
+    }
+
+    private static int previousSetBit(long[] first, long[] second, int fromFloor) {
+        if (fromFloor < 0) {
+            return -1;
+        }
+        int index = fromFloor >>> 6;
+        long word;
+        if (index >= first.length) {
+            index = first.length - 1;
+            word = first[index] | second[index];
+        } else {
+            word = (first[index] | second[index]) & (-1L >>> -(fromFloor + 1));
+        }
+
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (index-- == 0) {
+                return -1;
+            }
+            word = first[index] | second[index];
+        }
+    }
+}
@@ -0,0 +1,13 @@
+public enum SubmitResult {
+    ACCEPTED,
+    COALESCED,
+    REJECTED,
+    TIMED_OUT,
+    INVALID,
+    CLOSED,
+    DEFERRED;
+
+    public boolean isAccepted() {
+        return this == ACCEPTED || this == COALESCED;
+    }
+}
@@ -0,0 +1,337 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class SweepRunner {
+    private static final double CONFIDENCE_Z = 1.96;
+    private static final Set<String> OPTIONS = Set.of("--elevators", "--capacity", "--floors", "--strategy", "--pattern",
+            "--rate", "--minutes", "--replications", "--seed", "--parallelism", "--out");
+
+    public static void main(String[] args) {
+        int[] elevatorCounts = {2, 4, 6};
+        int[] capacities = {8};
+        int[] floorCounts = {20};
+        String[] strategies = {"nearest"};
+        String patternName = "up-peak";
+        double rate = 0.5;
+        int minutes = 60;
+        int replications = 8;
+        long baseSeed = 1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Path output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                printUsage();
+                return;
+            }
+            if (!OPTIONS.contains(option)) {
+                System.err.println("Unknown option: " + option);
+                printUsage();
+                return;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + option);
+                printUsage();
+                return;
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--elevators":
+                        elevatorCounts = parseValues(value, 1);
+                        break;
+                    case "--capacity":
+                        capacities = parseValues(value, 1);
+                        break;
+                    case "--floors":
+                        floorCounts = parseValues(value, 2);
+                        break;
+                    case "--strategy":
+                        strategies = value.split(",");
+                        break;
+                    case "--pattern":
+                        patternName = value;
+                        break;
+                    case "--rate":
+                        rate = Double.parseDouble(value);
+                        if (!(rate > 0)) {
+                            throw new IllegalArgumentException("Rate must be positive: " + value);
+                        }
+                        break;
+                    case "--minutes":
+                        minutes = parsePositive(value);
+                        break;
+                    case "--replications":
+                        replications = parsePositive(value);
+                        break;
+                    case "--seed":
+                        baseSeed = Long.parseLong(value);
+                        break;
+                    case "--parallelism":
+                        parallelism = parsePositive(value);
+                        break;
+                    default:
+                        output = Path.of(value);
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: Invalid value for " + option + ": " + value);
+                return;
+            }
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int floors : floorCounts) {
+            for (int elevators : elevatorCounts) {
+                for (int capacity : capacities) {
+                    for (String strategy : strategies) {
+                        scenarios.add(new Scenario(elevators, floors, capacity, strategy, patternName, rate));
+                    }
+                }
+            }
+        }
+        try {
+            for (Scenario scenario : scenarios) {
+                scenario.toConfig();
+                scenario.toPattern();
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return;
+        }
+
+        LogLevel previousLevel = Logger.getLevel();
+        Logger.setLevel(LogLevel.OFF);
+        long startNanos = System.nanoTime();
+        List<SweepResult> results;
+        try {
+            results = run(scenarios, minutes * 60_000L, replications, baseSeed, parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Sweep interrupted");
+            return;
+        } finally {
+            Logger.setLevel(previousLevel);
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.println("=== Sweep: " + scenarios.size() + " configurations x " + replications + " replications, "
+                + patternName + ", " + minutes + " min, " + rate + " arrivals/s, " + parallelism + " workers ===");
+        System.out.println(" cars floors cap strategy      wait mean (95% CI)   p95   journey mean   p95  util");
+        for (SweepResult result : results) {
+            System.out.println(result.formatRow());
+        }
+        System.out.printf("Simulated %d runs in %.2f s wall time%n", scenarios.size() * replications, elapsedSeconds);
+
+        if (output != null) {
+            try {
+                writeReport(results, output);
+                System.out.println("Report written to " + output);
+            } catch (IOException e) {
+                System.out.println("Error: Could not write report: " + e.getMessage());
+            }
+        }
+    }
+
+    public static List<SweepResult> run(List<Scenario> scenarios, long durationMillis, int replications,
+                                        long baseSeed, int parallelism) throws InterruptedException {
+        List<Callable<TripStatistics>> tasks = new ArrayList<>(scenarios.size() * replications);
+        for (Scenario scenario : scenarios) {
+            for (int replication = 0; replication < replications; replication++) {
+                long seed = baseSeed + replication;
+                tasks.add(() -> LoadTestRunner.run(scenario.toConfig(), scenario.toPattern(), durationMillis, seed));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<TripStatistics>> futures = pool.invokeAll(tasks);
+            List<SweepResult> results = new ArrayList<>(scenarios.size());
+            for (int s = 0; s < scenarios.size(); s++) {
+                SweepResult result = new SweepResult(scenarios.get(s));
+                for (int replication = 0; replication < replications; replication++) {
+                    result.add(futures.get(s * replications + replication).get());
+                }
+                results.add(result);
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int parsePositive(String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < 1) {
+            throw new IllegalArgumentException("Value must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static int[] parseValues(String spec, int min) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                values.add(Integer.parseInt(part.trim()));
+                continue;
+            }
+            int colon = part.indexOf(':');
+            int from = Integer.parseInt(part.substring(0, dash).trim());
+            int to = Integer.parseInt(part.substring(dash + 1, colon < 0 ? part.length() : colon).trim());
+            int step = (colon < 0) ? 1 : Integer.parseInt(part.substring(colon + 1).trim());
+            if (step < 1 || from > to) {
+                throw new IllegalArgumentException("Empty range: " + part);
+            }
+            for (long value = from; value <= to; value += step) {
+                values.add((int) value);
+            }
+        }
+
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+            if (result[i] < min) {
+                throw new IllegalArgumentException("Value below " + min + ": " + result[i]);
+            }
+        }
+        return result;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: sweep [--elevators 2,4,6|2-8] [--capacity 8,12] [--floors 10-30:10]"
+                + " [--strategy nearest,eta,...] [--pattern NAME] [--rate arrivals/s] [--minutes N]"
+                + " [--replications N] [--seed N] [--parallelism N] [--out report.csv|report.json]");
+    }
+
+    private static void writeReport(List<SweepResult> results, Path output) throws IOException {
+        boolean json = output.getFileName().toString().toLowerCase().endsWith(".json");
+        try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            if (json) {
+                out.write("[\n");
+                for (int i = 0; i < results.size(); i++) {
+                    out.write("  " + results.get(i).toJson() + (i + 1 < results.size() ? ",\n" : "\n"));
+                }
+                out.write("]\n");
+            } else {
+                out.write(SweepResult.CSV_HEADER + "\n");
+                for (SweepResult result : results) {
+                    out.write(result.toCsv() + "\n");
+                }
+            }
+        }
+    }
+
+    public static final class Scenario {
+        private final int elevators;
+        private final int floors;
+        private final int capacity;
+        private final String strategy;
+        private final String pattern;
+        private final double rate;
+
+        public Scenario(int elevators, int floors, int capacity, String strategy, String pattern, double rate) {
+            this.elevators = elevators;
+            this.floors = floors;
+            this.capacity = capacity;
+            this.strategy = strategy;
+            this.pattern = pattern;
+            this.rate = rate;
+        }
+
+        ElevatorSystemConfig toConfig() {
+            return new ElevatorSystemConfig(elevators, floors, capacity)
+                    .setDispatchStrategy(DispatchStrategy.named(strategy, floors, elevators));
+        }
+
+        TrafficPattern toPattern() {
+            return TrafficPattern.named(pattern, floors, rate);
+        }
+    }
+
+    public static final class SweepResult {
+        static final String CSV_HEADER = "elevators,floors,capacity,strategy,pattern,rate,replications,submitted,completed,unserved,"
+                + "wait_mean_s,wait_mean_ci95_s,wait_p50_s,wait_p95_s,wait_p99_s,"
+                + "journey_mean_s,journey_p50_s,journey_p95_s,journey_p99_s,utilization,energy_wh_per_trip";
+
+        private final Scenario scenario;
+        private final TripStatistics pooled;
+        private double waitMeanSum;
+        private double waitMeanSumOfSquares;
+        private int replications;
+
+        SweepResult(Scenario scenario) {
+            this.scenario = scenario;
+            this.pooled = new TripStatistics();
+        }
+
+        void add(TripStatistics statistics) {
+            pooled.merge(statistics);
+            double meanWait = statistics.meanWaitTime();
+            waitMeanSum += meanWait;
+            waitMeanSumOfSquares += meanWait * meanWait;
+            replications++;
+        }
+
+        public TripStatistics getStatistics() {
+            return pooled;
+        }
+
+        public double waitMeanConfidenceHalfWidth() {
+            if (replications < 2) {
+                return 0;
+            }
+            double mean = waitMeanSum / replications;
+            double variance = Math.max(0, (waitMeanSumOfSquares - replications * mean * mean) / (replications - 1));
+            return CONFIDENCE_Z * Math.sqrt(variance / replications);
+        }
+
+        String formatRow() {
+            return String.format("%5d %6d %3d %-12s %8.1f +/- %-6.1f %6.1f %10.1f %9.1f %4.0f%%",
+                    scenario.elevators, scenario.floors, scenario.capacity, scenario.strategy,
+                    pooled.meanWaitTime() / 1000, waitMeanConfidenceHalfWidth() / 1000, pooled.waitTimePercentile(95) / 1000.0,
+                    pooled.meanJourneyTime() / 1000, pooled.journeyTimePercentile(95) / 1000.0, pooled.getUtilization() * 100);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%d,%d,%s,%s,%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.4f,%.2f",
+                    scenario.elevators, scenario.floors, scenario.capacity, scenario.strategy, scenario.pattern, scenario.rate,
+                    replications, pooled.getSubmittedRequests(), pooled.getCompletedTrips(),
+                    pooled.getSubmittedRequests() - pooled.getCompletedTrips(),
+                    pooled.meanWaitTime() / 1000, waitMeanConfidenceHalfWidth() / 1000,
+                    pooled.waitTimePercentile(50) / 1000.0, pooled.waitTimePercentile(95) / 1000.0, pooled.waitTimePercentile(99) / 1000.0,
+                    pooled.meanJourneyTime() / 1000, pooled.journeyTimePercentile(50) / 1000.0,
+                    pooled.journeyTimePercentile(95) / 1000.0, pooled.journeyTimePercentile(99) / 1000.0,
+                    pooled.getUtilization(), pooled.getEnergyWh() / Math.max(1, pooled.getCompletedTrips()));
+        }
+
+        String toJson() {
+            String[] columns = CSV_HEADER.split(",");
+            String[] values = toCsv().split(",");
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('"').append(columns[i]).append("\":");
+                boolean text = columns[i].equals("strategy") || columns[i].equals("pattern");
+                sb.append(text ? "\"" + values[i] + "\"" : values[i]);
+            }
+            return sb.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public class TextLogSink implements LogSink {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private final Writer out;
+    private final ZoneId zone;
+    private final StringBuilder line;
+
+    public TextLogSink(PrintStream stream) {
+        this(new OutputStreamWriter(stream, StandardCharsets.UTF_8), ZoneId.systemDefault());
+    }
+
+    public TextLogSink(Writer out, ZoneId zone) {
+        this.out = out;
+        this.zone = zone;
+        this.line = new StringBuilder(128);
+    }
+
+    @Override
+    public void write(LogEvent event) throws IOException {
+        line.setLength(0);
+        line.append('[');
+        TIME_FORMATTER.formatTo(Instant.ofEpochSecond(0, event.timestampNanos).atZone(zone), line);
+        line.append("] ");
+        appendMessage(event, line);
+        line.append(System.lineSeparator());
+        out.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    static void appendMessage(LogEvent event, StringBuilder sb) {
+        switch (event.type) {
+            case REQUEST:
+                sb.append("REQUEST: ");
+                appendRequest(event, sb);
+                break;
+            case ASSIGNED:
+                sb.append("ASSIGNED: Elevator ").append(event.elevatorId).append(" -> ");
+                appendRequest(event, sb);
+                break;
+            case MOVING:
+                sb.append("MOVING: Elevator ").append(event.elevatorId).append(' ').append(event.direction)
+                        .append(" from floor ").append(event.floor).append(" to ").append(event.toFloor);
+                break;
+            case ARRIVED:
+                sb.append("ARRIVED: Elevator ").append(event.elevatorId).append(" at floor ").append(event.floor);
+                break;
+            case DOORS_OPEN:
+                sb.append("DOORS_OPEN: Elevator ").append(event.elevatorId).append(" at floor ").append(event.floor);
+                break;
+            case DOORS_CLOSE:
+                sb.append("DOORS_CLOSE: Elevator ").append(event.elevatorId).append(" at floor ").append(event.floor);
+                break;
+            case IDLE:
+                sb.append("IDLE: Elevator ").append(event.elevatorId).append(" waiting at floor ").append(event.floor);
+                break;
+            case ELEVATOR_STARTED:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" started (capacity: ")
+                        .append(event.capacity).append(" passengers)");
+                break;
+            case ELEVATOR_STOPPED:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" stopped");
+                break;
+            case TARGET_ADDED:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" added target floor ").append(event.floor);
+                break;
+            case PASSENGERS_EXITED:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" at floor ").append(event.floor)
+                        .append(": ").append(event.value).append(" passenger(s) exited");
+                break;
+            case PASSENGERS_ENTERED:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" at floor ").append(event.floor)
+                        .append(": ").append(event.value).append(" passenger(s) entered");
+                break;
+            case LOAD:
+                sb.append("SYSTEM: Elevator ").append(event.elevatorId).append(" capacity: ")
+                        .append(event.value).append('/').append(event.capacity);
+                break;
+            default:
+                sb.append("SYSTEM: ").append(event.message);
+                break;
+        }
+    }
+
+    private static void appendRequest(LogEvent event, StringBuilder sb) {
+        sb.append("Request{from=").append(event.floor).append(", dir=").append(event.direction)
+                .append(", to=").append(event.toFloor).append('}');
+    }
+}
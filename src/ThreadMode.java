@@ -0,0 +1,4 @@
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ThreadModeComparison {
+    private static final int DEFAULT_ELEVATORS = 2000;
+    private static final int NUMBER_OF_FLOORS = 50;
+    private static final long SETTLE_TIME_MS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int elevators = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ELEVATORS;
+        Logger.setLevel(LogLevel.WARN);
+
+        System.out.println("Comparing thread modes with " + elevators + " elevators");
+        System.out.printf("%-10s %12s %14s %16s %12s%n", "mode", "startup(ms)", "heap used(MB)", "platform threads", "rss(MB)");
+
+        for (ThreadMode mode : ThreadMode.values()) {
+            measure(mode, elevators);
+        }
+    }
+
+    private static void measure(ThreadMode mode, int elevators) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long rssBefore = residentSetSize();
+
+        long startNanos = System.nanoTime();
+        ElevatorSystem system = new ElevatorSystem(new ElevatorSystemConfig(elevators, NUMBER_OF_FLOORS, 8).setThreadMode(mode));
+        system.start();
+        long startupMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        Thread.sleep(SETTLE_TIME_MS);
+        System.gc();
+        long heapUsed = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+        long rssUsed = residentSetSize() - rssBefore;
+        int platformThreads = threads.getThreadCount();
+
+        System.out.printf("%-10s %12d %14.1f %16d %12s%n", mode, startupMillis, heapUsed / 1048576.0, platformThreads,
+                rssBefore < 0 ? "n/a" : String.format("%.1f", rssUsed / 1048576.0));
+
+        system.shutdown();
+    }
+
+    private static long residentSetSize() {
+        try {
+            List<String> lines = Files.readAllLines(Path.of("/proc/self/status"));
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
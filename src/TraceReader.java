@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TraceReader implements AutoCloseable {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final ElevatorStatus[] STATUSES = ElevatorStatus.values();
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer buffer;
+    private long windowOffset;
+    private final int numberOfElevators;
+    private final int numberOfFloors;
+    private final int elevatorCapacity;
+    private final long startMillis;
+
+    private byte type;
+    private Direction direction;
+    private ElevatorStatus status;
+    private int elevatorId;
+    private int first;
+    private int second;
+    private long timeMillis;
+    private long requestTime;
+
+    public TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.buffer = map(0);
+
+        if (buffer.remaining() < TraceRecorder.HEADER_SIZE || buffer.getInt() != TraceRecorder.MAGIC) {
+            channel.close();
+            throw new IOException("Not an elevator trace: " + path);
+        }
+        short version = buffer.getShort();
+        if (version != TraceRecorder.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported trace version " + version + ": " + path);
+        }
+        buffer.getShort();
+        this.numberOfElevators = buffer.getInt();
+        this.numberOfFloors = buffer.getInt();
+        this.elevatorCapacity = buffer.getInt();
+        buffer.getInt();
+        this.startMillis = buffer.getLong();
+    }
+
+    private MappedByteBuffer map(long offset) throws IOException {
+        windowOffset = offset;
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, fileSize - offset));
+    }
+
+    public boolean next() {
+        if (buffer.remaining() < TraceRecorder.RECORD_SIZE) {
+            long nextOffset = windowOffset + buffer.position();
+            if (nextOffset + TraceRecorder.RECORD_SIZE > fileSize) {
+                return false;
+            }
+            try {
+                buffer = map(nextOffset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map trace window at offset " + nextOffset, e);
+            }
+        }
+        type = buffer.get();
+        if (type == 0) {
+            buffer.position(buffer.position() - 1);
+            return false;
+        }
+        direction = DIRECTIONS[buffer.get()];
+        byte statusOrdinal = buffer.get();
+        status = (statusOrdinal < 0) ? null : STATUSES[statusOrdinal];
+        buffer.get();
+        elevatorId = buffer.getInt();
+        first = buffer.getInt();
+        second = buffer.getInt();
+        timeMillis = buffer.getLong();
+        requestTime = buffer.getLong();
+        return true;
+    }
+
+    public void rewind() {
+        if (windowOffset != 0) {
+            try {
+                buffer = map(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map trace window at offset 0", e);
+            }
+        }
+        buffer.position(TraceRecorder.HEADER_SIZE);
+    }
+
+    public boolean isRequest() {
+        return type == TraceRecorder.REQUEST;
+    }
+
+    public boolean isStateChange() {
+        return type == TraceRecorder.STATE;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public ElevatorStatus getStatus() {
+        return status;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public int getFromFloor() {
+        return first;
+    }
+
+    public int getToFloor() {
+        return second;
+    }
+
+    public int getFloor() {
+        return first;
+    }
+
+    public int getPassengers() {
+        return second;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    public int getNumberOfElevators() {
+        return numberOfElevators;
+    }
+
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+
+    public int getElevatorCapacity() {
+        return elevatorCapacity;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public String describe() {
+        String elapsed = String.format("%10.3f", (timeMillis - startMillis) / 1000.0);
+        switch (type) {
+            case TraceRecorder.REQUEST:
+                return elapsed + " REQUEST     " + first + " -> " + second + " " + direction;
+            case TraceRecorder.ASSIGNED:
+                return elapsed + " ASSIGNED    " + first + " -> " + second + " to elevator " + elevatorId;
+            case TraceRecorder.UNASSIGNED:
+                return elapsed + " UNASSIGNED  " + first + " -> " + second;
+            case TraceRecorder.REASSIGNED:
+                return elapsed + " REASSIGNED  " + first + " -> " + second + " to elevator " + elevatorId;
+            case TraceRecorder.REJECTED:
+                return elapsed + " REJECTED    " + first + " -> " + second + " " + SubmitResult.values()[elevatorId];
+            case TraceRecorder.PICKUP:
+                return elapsed + " PICKUP      " + first + " -> " + second + " by elevator " + elevatorId;
+            case TraceRecorder.DROP_OFF:
+                return elapsed + " DROP_OFF    " + first + " -> " + second + " by elevator " + elevatorId;
+            case TraceRecorder.OUT_OF_SERVICE:
+                return elapsed + " FAILOVER    elevator " + elevatorId + " after " + second + " ms, " + first
+                        + " request(s) moved";
+            case TraceRecorder.STATE:
+                return elapsed + " STATE       elevator " + elevatorId + " floor " + first + " " + direction + " "
+                        + status + " passengers " + second;
+            default:
+                return elapsed + " UNKNOWN(" + type + ")";
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TraceRecorder implements ElevatorEventListener, AutoCloseable {
+    static final int MAGIC = 0x454C5654;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 32;
+
+    static final byte REQUEST = 1;
+    static final byte ASSIGNED = 2;
+    static final byte UNASSIGNED = 3;
+    static final byte PICKUP = 4;
+    static final byte DROP_OFF = 5;
+    static final byte STATE = 6;
+    static final byte REJECTED = 7;
+    static final byte REASSIGNED = 8;
+    static final byte OUT_OF_SERVICE = 9;
+
+    private static final long MAPPING_SIZE = 16L * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ReentrantLock lock;
+    private MappedByteBuffer buffer;
+    private long mappingOffset;
+    private long records;
+    private boolean closed;
+
+    public TraceRecorder(Path path, int numberOfElevators, int numberOfFloors, int elevatorCapacity, long startMillis)
+            throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.lock = new ReentrantLock();
+        this.mappingOffset = 0;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, MAPPING_SIZE);
+
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(numberOfElevators);
+        buffer.putInt(numberOfFloors);
+        buffer.putInt(elevatorCapacity);
+        buffer.putInt(0);
+        buffer.putLong(startMillis);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getRecordCount() {
+        lock.lock();
+        try {
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        append(REQUEST, request.getDirection(), null, 0, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onRequestAssigned(int elevatorId, PassengerRequest request, long timeMillis) {
+        append(ASSIGNED, request.getDirection(), null, elevatorId, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+        append(UNASSIGNED, request.getDirection(), null, 0, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onRequestReassigned(int fromElevatorId, int toElevatorId, PassengerRequest request, long timeMillis) {
+        append(REASSIGNED, request.getDirection(), null, toElevatorId, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+        append(REJECTED, request.getDirection(), null, result.ordinal(), request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+        append(PICKUP, request.getDirection(), null, elevatorId, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+        append(DROP_OFF, request.getDirection(), null, elevatorId, request.getFromFloor(), request.getToFloor(),
+                timeMillis, request.getTimestamp());
+    }
+
+    @Override
+    public void onElevatorStateChange(ElevatorState state, long timeMillis) {
+        append(STATE, state.getDirection(), state.getStatus(), state.getElevatorId(), state.getCurrentFloor(),
+                state.getCurrentPassengers(), timeMillis, 0);
+    }
+
+    @Override
+    public void onElevatorOutOfService(int elevatorId, int requestsMoved, long detectionMillis, long timeMillis) {
+        append(OUT_OF_SERVICE, Direction.IDLE, ElevatorStatus.OUT_OF_SERVICE, elevatorId, requestsMoved, (int) detectionMillis,
+                timeMillis, 0);
+    }
+
+    private void append(byte type, Direction direction, ElevatorStatus status, int elevatorId,
+                        int first, int second, long timeMillis, long requestTime) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (buffer.remaining() < RECORD_SIZE) {
+                remap();
+            }
+
+            buffer.put(type);
+            buffer.put((byte) direction.ordinal());
+            buffer.put((byte) (status == null ? -1 : status.ordinal()));
+            buffer.put((byte) 0);
+            buffer.putInt(elevatorId);
+            buffer.putInt(first);
+            buffer.putInt(second);
+            buffer.putLong(timeMillis);
+            buffer.putLong(requestTime);
+            records++;
+        } catch (IOException e) {
+            closed = true;
+            Logger.logSystemEvent("Trace recording to " + path + " stopped: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remap() throws IOException {
+        mappingOffset += buffer.position();
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, mappingOffset, MAPPING_SIZE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed && !channel.isOpen()) {
+                return;
+            }
+            closed = true;
+            long size = mappingOffset + buffer.position();
+            buffer.force();
+            buffer = null;
+            try {
+                channel.truncate(size);
+            } catch (IOException e) {
+                Logger.logSystemEvent("Trace " + path + " left padded to mapping size: " + e.getMessage());
+            }
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TraceReplayer {
+    private static final long MAX_DRAIN_TIME_MS = 3_600_000;
+    private static final long DRAIN_STEP_MS = 60_000;
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+
+        Path tracePath = Path.of(args[0]);
+        String strategies = "nearest";
+        Integer elevators = null;
+        Integer capacity = null;
+        boolean batch = false;
+        long batchWindowMillis = ElevatorSystemConfig.DEFAULT_BATCH_WINDOW_MS;
+        boolean parking = false;
+        boolean dump = false;
+        String profiles = "legacy";
+        int shards = 1;
+
+        for (int i = 1; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--strategy":
+                    strategies = value;
+                    i++;
+                    break;
+                case "--elevators":
+                    elevators = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--capacity":
+                    capacity = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--shards":
+                    shards = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--batch":
+                    batch = true;
+                    break;
+                case "--batch-window":
+                    batch = true;
+                    batchWindowMillis = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--parking":
+                    parking = true;
+                    break;
+                case "--profile":
+                    profiles = value;
+                    i++;
+                    break;
+                case "--dump":
+                    dump = true;
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    printUsage();
+                    return;
+            }
+        }
+
+        try (TraceReader reader = new TraceReader(tracePath)) {
+            if (dump) {
+                while (reader.next()) {
+                    System.out.println(reader.describe());
+                }
+                return;
+            }
+
+            Logger.setLevel(LogLevel.WARN);
+            int cars = (elevators != null) ? elevators : reader.getNumberOfElevators();
+            int floors = reader.getNumberOfFloors();
+            int carCapacity = (capacity != null) ? capacity : reader.getElevatorCapacity();
+
+            for (String strategyName : strategies.split(",")) {
+                long startNanos = System.nanoTime();
+                ElevatorSystemConfig config = new ElevatorSystemConfig(cars, floors, carCapacity)
+                        .setDispatchStrategy(DispatchStrategy.named(strategyName, floors, cars))
+                        .setBatchDispatch(batch)
+                        .setBatchWindowMillis(batchWindowMillis)
+                        .setParking(parking)
+                        .setShardCount(shards)
+                        .setKinematicProfiles(profiles);
+                TripStatistics statistics = replay(reader, config);
+
+                System.out.println("=== Replay: " + tracePath.getFileName() + ", " + cars + " cars, " + floors + " floors, strategy "
+                        + strategyName + (batch ? " (batched, " + batchWindowMillis + " ms window)" : "") + (parking ? ", parking" : "") + (shards > 1 ? ", " + shards + " shards" : "")
+                        + (profiles.equals("legacy") ? "" : ", profile " + profiles) + " ===");
+                System.out.println(statistics.report());
+                System.out.printf("Replayed in %.2f s wall time%n", (System.nanoTime() - startNanos) / 1e9);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Could not read trace: " + e.getMessage());
+        }
+    }
+
+    public static TripStatistics replay(TraceReader reader, ElevatorSystemConfig config) {
+        DiscreteEventScheduler scheduler = new DiscreteEventScheduler();
+        ElevatorSystem system = new ElevatorSystem(config.setScheduler(scheduler));
+        TripStatistics statistics = new TripStatistics();
+        system.addEventListener(statistics);
+        system.start();
+
+        long lastRequestMillis = 0;
+        reader.rewind();
+        while (reader.next()) {
+            if (!reader.isRequest()) {
+                continue;
+            }
+            long offset = Math.max(0, reader.getRequestTime() - reader.getStartMillis());
+            int fromFloor = reader.getFromFloor();
+            int toFloor = reader.getToFloor();
+            Direction direction = reader.getDirection();
+            scheduler.scheduleAt(offset, () -> system.requestElevator(fromFloor, direction, toFloor));
+            lastRequestMillis = Math.max(lastRequestMillis, offset);
+        }
+
+        LoadTestRunner.scheduleSampling(scheduler, system, statistics, lastRequestMillis);
+        scheduler.runUntil(lastRequestMillis);
+        long drainDeadline = lastRequestMillis + MAX_DRAIN_TIME_MS;
+        while (statistics.getOutstandingTrips() > 0 && scheduler.currentTimeMillis() < drainDeadline) {
+            scheduler.runFor(DRAIN_STEP_MS);
+        }
+
+        system.shutdown();
+        return statistics;
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: replay <trace-file> [--strategy nearest|eta|eta-grouped|zoning|eta-energy[:ms-per-Wh][,...]] [--elevators N]"
+                + " [--capacity N] [--batch] [--batch-window ms] [--parking] [--shards N] [--profile NAME[,...]] [--dump]");
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TrafficPattern {
+    private static final double LOBBY_SHARE_PEAK = 0.85;
+    private static final double LOBBY_SHARE_LUNCH = 0.45;
+
+    private final int numberOfFloors;
+    private final List<Segment> segments;
+
+    public TrafficPattern(int numberOfFloors) {
+        this.numberOfFloors = numberOfFloors;
+        this.segments = new ArrayList<>();
+    }
+
+    public TrafficPattern addSegment(long startMillis, double arrivalsPerSecond, double[][] originDestination) {
+        if (originDestination.length != numberOfFloors || originDestination[0].length != numberOfFloors) {
+            throw new IllegalArgumentException("Origin/destination matrix must be " + numberOfFloors + "x" + numberOfFloors);
+        }
+        if (!segments.isEmpty() && startMillis <= segments.get(segments.size() - 1).startMillis) {
+            throw new IllegalArgumentException("Segments must be added in increasing start time order");
+        }
+        segments.add(new Segment(startMillis, arrivalsPerSecond, originDestination));
+        return this;
+    }
+
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+
+    public double getArrivalRate(long timeMillis) {
+        Segment segment = segmentAt(timeMillis);
+        return (segment == null) ? 0 : segment.arrivalsPerSecond;
+    }
+
+    public double getMaxArrivalRate() {
+        double max = 0;
+        for (Segment segment : segments) {
+            max = Math.max(max, segment.arrivalsPerSecond);
+        }
+        return max;
+    }
+
+    public int[] sampleTrip(Random random, long timeMillis) {
+        Segment segment = segmentAt(timeMillis);
+        if (segment == null) {
+            return null;
+        }
+
+        double[] cumulative = segment.cumulative;
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        int index = low;
+        return new int[]{index / numberOfFloors + 1, index % numberOfFloors + 1};
+    }
+
+    private Segment segmentAt(long timeMillis) {
+        Segment current = null;
+        for (Segment segment : segments) {
+            if (segment.startMillis > timeMillis) {
+                break;
+            }
+            current = segment;
+        }
+        return current;
+    }
+
+    public static TrafficPattern uniform(int floors, double arrivalsPerSecond) {
+        return new TrafficPattern(floors).addSegment(0, arrivalsPerSecond, interfloorMatrix(floors));
+    }
+
+    public static TrafficPattern upPeak(int floors, double arrivalsPerSecond) {
+        return new TrafficPattern(floors).addSegment(0, arrivalsPerSecond, lobbyMatrix(floors, LOBBY_SHARE_PEAK, 0.05));
+    }
+
+    public static TrafficPattern lunch(int floors, double arrivalsPerSecond) {
+        return new TrafficPattern(floors).addSegment(0, arrivalsPerSecond, lobbyMatrix(floors, LOBBY_SHARE_LUNCH, LOBBY_SHARE_LUNCH));
+    }
+
+    public static TrafficPattern downPeak(int floors, double arrivalsPerSecond) {
+        return new TrafficPattern(floors).addSegment(0, arrivalsPerSecond, lobbyMatrix(floors, 0.05, LOBBY_SHARE_PEAK));
+    }
+
+    public static TrafficPattern officeDay(int floors, double peakArrivalsPerSecond) {
+        long hour = 3_600_000L;
+        return new TrafficPattern(floors)
+                .addSegment(0, peakArrivalsPerSecond * 0.02, interfloorMatrix(floors))
+                .addSegment(7 * hour, peakArrivalsPerSecond, lobbyMatrix(floors, LOBBY_SHARE_PEAK, 0.05))
+                .addSegment(9 * hour + hour / 2, peakArrivalsPerSecond * 0.3, interfloorMatrix(floors))
+                .addSegment(12 * hour, peakArrivalsPerSecond * 0.7, lobbyMatrix(floors, LOBBY_SHARE_LUNCH, LOBBY_SHARE_LUNCH))
+                .addSegment(13 * hour + hour / 2, peakArrivalsPerSecond * 0.3, interfloorMatrix(floors))
+                .addSegment(16 * hour + hour / 2, peakArrivalsPerSecond, lobbyMatrix(floors, 0.05, LOBBY_SHARE_PEAK))
+                .addSegment(18 * hour + hour / 2, peakArrivalsPerSecond * 0.02, interfloorMatrix(floors));
+    }
+
+    public static TrafficPattern named(String name, int floors, double arrivalsPerSecond) {
+        switch (name.toLowerCase()) {
+            case "uniform":
+                return uniform(floors, arrivalsPerSecond);
+            case "up-peak":
+                return upPeak(floors, arrivalsPerSecond);
+            case "lunch":
+                return lunch(floors, arrivalsPerSecond);
+            case "down-peak":
+                return downPeak(floors, arrivalsPerSecond);
+            case "office-day":
+                return officeDay(floors, arrivalsPerSecond);
+            default:
+                throw new IllegalArgumentException("Unknown traffic pattern: " + name);
+        }
+    }
+
+    static double[][] interfloorMatrix(int floors) {
+        double[][] matrix = new double[floors][floors];
+        for (int from = 0; from < floors; from++) {
+            for (int to = 0; to < floors; to++) {
+                matrix[from][to] = (from == to) ? 0 : 1;
+            }
+        }
+        return matrix;
+    }
+
+    static double[][] lobbyMatrix(int floors, double fromLobbyShare, double toLobbyShare) {
+        double[][] matrix = new double[floors][floors];
+        int upperFloors = floors - 1;
+        double interfloorShare = Math.max(0, 1 - fromLobbyShare - toLobbyShare);
+        double interfloorPairs = Math.max(1, (double) upperFloors * (upperFloors - 1));
+
+        for (int floor = 1; floor < floors; floor++) {
+            matrix[0][floor] = fromLobbyShare / upperFloors;
+            matrix[floor][0] = toLobbyShare / upperFloors;
+            for (int to = 1; to < floors; to++) {
+                if (to != floor) {
+                    matrix[floor][to] = interfloorShare / interfloorPairs;
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private static final class Segment {
+        private final long startMillis;
+        private final double arrivalsPerSecond;
+        private final double[] cumulative;
+
+        private Segment(long startMillis, double arrivalsPerSecond, double[][] originDestination) {
+            this.startMillis = startMillis;
+            this.arrivalsPerSecond = arrivalsPerSecond;
+            int floors = originDestination.length;
+            this.cumulative = new double[floors * floors];
+
+            double total = 0;
+            for (int from = 0; from < floors; from++) {
+                for (int to = 0; to < floors; to++) {
+                    if (from != to) {
+                        total += Math.max(0, originDestination[from][to]);
+                    }
+                    cumulative[from * floors + to] = total;
+                }
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Origin/destination matrix has no trips");
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class TravelTable {
+    private static final double GRAVITY = 9.81;
+    private static final double UNLIMITED_JERK = 1e6;
+    private static final int BISECTION_STEPS = 60;
+    private static final int UP = 0;
+    private static final int DOWN = 1;
+
+    private static final int MAX_CACHED_TABLES = 64;
+
+    private static final Map<Key, TravelTable> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, TravelTable> eldest) {
+            return size() > MAX_CACHED_TABLES;
+        }
+    };
+
+    private final KinematicProfile profile;
+    private final int maxFloor;
+    private final int capacity;
+    private final long[] runMillis;
+    private final long[] segmentMillis;
+    private final double[] runJoules;
+    private final double[] stopJoules;
+
+    private TravelTable(KinematicProfile profile, int maxFloor, int capacity) {
+        this.profile = profile;
+        this.maxFloor = maxFloor;
+        this.capacity = capacity;
+
+        int longestRun = Math.max(1, maxFloor - 1);
+        double floorHeight = profile.getFloorHeightMeters();
+        double[] peakSpeed = new double[longestRun + 1];
+        this.runMillis = new long[longestRun + 1];
+        this.segmentMillis = new long[longestRun * (longestRun + 1) / 2];
+        for (int floors = 1; floors <= longestRun; floors++) {
+            RunShape shape = new RunShape(profile, floors * floorHeight);
+            peakSpeed[floors] = shape.peakSpeed;
+            long previous = 0;
+            for (int k = 1; k <= floors; k++) {
+                long passed = Math.round(shape.timeAt(k * floorHeight) * 1000);
+                segmentMillis[segmentOffset(floors) + k - 1] = passed - previous;
+                previous = passed;
+            }
+            runMillis[floors] = previous;
+        }
+
+        double counterweight = profile.getCarMassKg() + profile.getBalanceRatio() * capacity * profile.getPassengerMassKg();
+        this.runJoules = new double[2 * (capacity + 1) * (longestRun + 1)];
+        this.stopJoules = new double[capacity + 1];
+        for (int load = 0; load <= capacity; load++) {
+            double carMass = profile.getCarMassKg() + load * profile.getPassengerMassKg();
+            double movingMass = carMass + counterweight;
+            double imbalance = carMass - counterweight;
+            stopJoules[load] = kineticLoss(movingMass, peakSpeed[1]);
+            for (int floors = 1; floors <= longestRun; floors++) {
+                double distance = floors * floorHeight;
+                double friction = profile.getFrictionNewtons() * distance;
+                double kinetic = kineticLoss(movingMass, peakSpeed[floors]);
+                double lift = imbalance * GRAVITY * distance;
+                runJoules[energyIndex(UP, load, floors)] = electrical(lift + friction) + kinetic;
+                runJoules[energyIndex(DOWN, load, floors)] = electrical(-lift + friction) + kinetic;
+            }
+        }
+    }
+
+    public static TravelTable of(KinematicProfile profile, int maxFloor, int capacity) {
+        Key key = new Key(profile, maxFloor, capacity);
+        synchronized (CACHE) {
+            TravelTable cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        TravelTable table = new TravelTable(profile, maxFloor, capacity);
+        synchronized (CACHE) {
+            TravelTable raced = CACHE.putIfAbsent(key, table);
+            return (raced != null) ? raced : table;
+        }
+    }
+
+    private double kineticLoss(double movingMass, double speed) {
+        double kinetic = 0.5 * movingMass * speed * speed;
+        return kinetic / profile.getMotorEfficiency() - kinetic * profile.getRegenEfficiency();
+    }
+
+    private double electrical(double work) {
+        return (work >= 0) ? work / profile.getMotorEfficiency() : work * profile.getRegenEfficiency();
+    }
+
+    private static int segmentOffset(int floors) {
+        return floors * (floors - 1) / 2;
+    }
+
+    private int energyIndex(int direction, int load, int floors) {
+        return (direction * (capacity + 1) + load) * runMillis.length + floors;
+    }
+
+    public long runMillis(int floors) {
+        return runMillis[floors];
+    }
+
+    public long travelMillis(int fromFloor, int toFloor) {
+        return runMillis[Math.abs(toFloor - fromFloor)];
+    }
+
+    public long segmentMillis(int runFloors, int floorsCovered) {
+        return segmentMillis[segmentOffset(runFloors) + floorsCovered];
+    }
+
+    public long stopMillis() {
+        return profile.getDoorOpenMillis() + profile.getDoorCloseMillis();
+    }
+
+    public double runEnergyWh(int fromFloor, int toFloor, int passengers) {
+        if (fromFloor == toFloor) {
+            return 0;
+        }
+        int load = Math.max(0, Math.min(capacity, passengers));
+        int direction = (toFloor > fromFloor) ? UP : DOWN;
+        return runJoules[energyIndex(direction, load, Math.abs(toFloor - fromFloor))] / 3600;
+    }
+
+    public double stopEnergyWh(int passengers) {
+        return stopJoules[Math.max(0, Math.min(capacity, passengers))] / 3600;
+    }
+
+    public KinematicProfile getProfile() {
+        return profile;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static final class Key {
+        private final KinematicProfile profile;
+        private final int maxFloor;
+        private final int capacity;
+
+        Key(KinematicProfile profile, int maxFloor, int capacity) {
+            this.profile = profile;
+            this.maxFloor = maxFloor;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) other;
+            return maxFloor == that.maxFloor && capacity == that.capacity && profile.equals(that.profile);
+        }
+
+        @Override
+        public int hashCode() {
+            return (profile.hashCode() * 31 + maxFloor) * 31 + capacity;
+        }
+    }
+
+    private static final class RunShape {
+        private final double distance;
+        private final double jerk;
+        private double peakSpeed;
+        private double peakAcceleration;
+        private double accelTime;
+        private double cruiseTime;
+
+        RunShape(KinematicProfile profile, double distance) {
+            this.distance = distance;
+            this.jerk = Math.min(profile.getJerk(), UNLIMITED_JERK);
+            if (profile.isConstantSpeed()) {
+                peakSpeed = profile.getMaxSpeed();
+                cruiseTime = distance / peakSpeed;
+                return;
+            }
+
+            double acceleration = profile.getAcceleration();
+            double speed = profile.getMaxSpeed();
+            if (2 * accelDistance(speed, acceleration) > distance) {
+                double low = 0;
+                double high = speed;
+                for (int i = 0; i < BISECTION_STEPS; i++) {
+                    double mid = (low + high) / 2;
+                    if (2 * accelDistance(mid, acceleration) > distance) {
+                        high = mid;
+                    } else {
+                        low = mid;
+                    }
+                }
+                speed = low;
+            }
+            peakSpeed = speed;
+            peakAcceleration = Math.min(acceleration, Math.sqrt(speed * jerk));
+            accelTime = speed / peakAcceleration + peakAcceleration / jerk;
+            cruiseTime = Math.max(0, distance - speed * accelTime) / speed;
+        }
+
+        private double accelDistance(double speed, double acceleration) {
+            double peak = Math.min(acceleration, Math.sqrt(speed * jerk));
+            return speed * (speed / peak + peak / jerk) / 2;
+        }
+
+        double totalTime() {
+            return 2 * accelTime + cruiseTime;
+        }
+
+        double timeAt(double position) {
+            if (position >= distance) {
+                return totalTime();
+            }
+            if (accelTime == 0) {
+                return position / peakSpeed;
+            }
+            double low = 0;
+            double high = totalTime();
+            for (int i = 0; i < BISECTION_STEPS; i++) {
+                double mid = (low + high) / 2;
+                if (positionAt(mid) < position) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return high;
+        }
+
+        private double positionAt(double time) {
+            double total = totalTime();
+            if (time >= total) {
+                return distance;
+            }
+            if (time <= accelTime) {
+                return accelPosition(time);
+            }
+            if (time <= accelTime + cruiseTime) {
+                return accelPosition(accelTime) + peakSpeed * (time - accelTime);
+            }
+            return distance - accelPosition(total - time);
+        }
+
+        private double accelPosition(double time) {
+            double rampTime = peakAcceleration / jerk;
+            double constantTime = Math.max(0, peakSpeed / peakAcceleration - rampTime);
+            if (time <= rampTime) {
+                return jerk * time * time * time / 6;
+            }
+            double rampSpeed = jerk * rampTime * rampTime / 2;
+            double rampDistance = jerk * rampTime * rampTime * rampTime / 6;
+            if (time <= rampTime + constantTime) {
+                double tau = time - rampTime;
+                return rampDistance + rampSpeed * tau + peakAcceleration * tau * tau / 2;
+            }
+            double speed = rampSpeed + peakAcceleration * constantTime;
+            double covered = rampDistance + rampSpeed * constantTime + peakAcceleration * constantTime * constantTime / 2;
+            double tau = time - rampTime - constantTime;
+            return covered + speed * tau + peakAcceleration * tau * tau / 2 - jerk * tau * tau * tau / 6;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TripStatistics implements ElevatorEventListener {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongSamples waitTimes = new LongSamples();
+    private final LongSamples journeyTimes = new LongSamples();
+    private final LongSamples detectionTimes = new LongSamples();
+    private final Set<PassengerRequest> outstanding = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long submitted;
+    private long unassigned;
+    private long rejected;
+    private long requestsMoved;
+    private long firstRequestMillis = -1;
+    private long lastDropOffMillis;
+    private long busySamples;
+    private long totalSamples;
+    private double energyWh;
+    private long runs;
+    private long dispatchDecisions;
+    private long dispatchedRequests;
+    private int largestBatch;
+
+    @Override
+    public void onRequestSubmitted(PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            submitted++;
+            if (firstRequestMillis < 0) {
+                firstRequestMillis = request.getTimestamp();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onElevatorRun(int elevatorId, int fromFloor, int toFloor, int passengers, double energyWh, long timeMillis) {
+        lock.lock();
+        try {
+            this.energyWh += energyWh;
+            runs++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onDispatchDecision(int requests, long latencyNanos) {
+        lock.lock();
+        try {
+            dispatchDecisions++;
+            dispatchedRequests += requests;
+            largestBatch = Math.max(largestBatch, requests);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestAssigned(int elevatorId, PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            outstanding.add(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestUnassigned(PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            unassigned++;
+            outstanding.remove(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestRejected(PassengerRequest request, SubmitResult result, long timeMillis) {
+        lock.lock();
+        try {
+            rejected++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onPassengerPickup(int elevatorId, PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            waitTimes.add(timeMillis - request.getTimestamp());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onPassengerDropOff(int elevatorId, PassengerRequest request, long timeMillis) {
+        lock.lock();
+        try {
+            outstanding.remove(request);
+            journeyTimes.add(timeMillis - request.getTimestamp());
+            lastDropOffMillis = Math.max(lastDropOffMillis, timeMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sampleUtilization(List<Elevator> elevators) {
+        lock.lock();
+        try {
+            for (Elevator elevator : elevators) {
+                ElevatorState state = elevator.getState();
+                if (state.getStatus() != ElevatorStatus.STOPPED || state.getPendingStops() > 0) {
+                    busySamples++;
+                }
+                totalSamples++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onElevatorOutOfService(int elevatorId, int requestsMoved, long detectionMillis, long timeMillis) {
+        lock.lock();
+        try {
+            detectionTimes.add(detectionMillis);
+            this.requestsMoved += requestsMoved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void merge(TripStatistics other) {
+        lock.lock();
+        other.lock.lock();
+        try {
+            waitTimes.addAll(other.waitTimes);
+            journeyTimes.addAll(other.journeyTimes);
+            detectionTimes.addAll(other.detectionTimes);
+            requestsMoved += other.requestsMoved;
+            submitted += other.submitted;
+            unassigned += other.unassigned;
+            rejected += other.rejected;
+            outstanding.addAll(other.outstanding);
+            busySamples += other.busySamples;
+            totalSamples += other.totalSamples;
+            energyWh += other.energyWh;
+            runs += other.runs;
+            dispatchDecisions += other.dispatchDecisions;
+            dispatchedRequests += other.dispatchedRequests;
+            largestBatch = Math.max(largestBatch, other.largestBatch);
+        } finally {
+            other.lock.unlock();
+            lock.unlock();
+        }
+    }
+
+    public long getSubmittedRequests() {
+        lock.lock();
+        try {
+            return submitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUnassignedRequests() {
+        lock.lock();
+        try {
+            return unassigned + rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double meanWaitTime() {
+        lock.lock();
+        try {
+            return waitTimes.mean();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double meanJourneyTime() {
+        lock.lock();
+        try {
+            return journeyTimes.mean();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getUtilization() {
+        lock.lock();
+        try {
+            return (totalSamples == 0) ? 0 : (double) busySamples / totalSamples;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getEnergyWh() {
+        lock.lock();
+        try {
+            return energyWh;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRuns() {
+        lock.lock();
+        try {
+            return runs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCompletedTrips() {
+        lock.lock();
+        try {
+            return journeyTimes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getOutstandingTrips() {
+        lock.lock();
+        try {
+            return outstanding.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getFailovers() {
+        lock.lock();
+        try {
+            return detectionTimes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long waitTimePercentile(double percentile) {
+        lock.lock();
+        try {
+            return waitTimes.percentile(percentile);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long journeyTimePercentile(double percentile) {
+        lock.lock();
+        try {
+            return journeyTimes.percentile(percentile);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String report() {
+        lock.lock();
+        try {
+            long spanMillis = Math.max(1, lastDropOffMillis - Math.max(0, firstRequestMillis));
+            double throughputPerMinute = journeyTimes.size() * 60_000.0 / spanMillis;
+            double utilization = (totalSamples == 0) ? 0 : 100.0 * busySamples / totalSamples;
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Requests submitted: %d, completed: %d, unassigned: %d%s%n", submitted, journeyTimes.size(), unassigned,
+                    (rejected > 0) ? ", rejected: " + rejected : ""));
+            sb.append(String.format("Wait time    (s): mean %.1f  p50 %.1f  p95 %.1f  p99 %.1f%n",
+                    waitTimes.mean() / 1000, waitTimes.percentile(50) / 1000.0, waitTimes.percentile(95) / 1000.0, waitTimes.percentile(99) / 1000.0));
+            sb.append(String.format("Journey time (s): mean %.1f  p50 %.1f  p95 %.1f  p99 %.1f%n",
+                    journeyTimes.mean() / 1000, journeyTimes.percentile(50) / 1000.0, journeyTimes.percentile(95) / 1000.0, journeyTimes.percentile(99) / 1000.0));
+            sb.append(String.format("Throughput: %.1f passengers/min, car utilization: %.1f%%", throughputPerMinute, utilization));
+            if (runs > 0) {
+                sb.append(String.format("%nEnergy: %.2f kWh over %d runs, %.1f Wh per trip", energyWh / 1000, runs,
+                        energyWh / Math.max(1, journeyTimes.size())));
+            }
+            if (largestBatch > 1) {
+                sb.append(String.format("%nDispatch: %d requests in %d decisions, mean batch %.2f, largest %d",
+                        dispatchedRequests, dispatchDecisions, (double) dispatchedRequests / dispatchDecisions, largestBatch));
+            }
+            if (detectionTimes.size() > 0) {
+                sb.append(String.format("%nFailovers: %d, detection (ms): mean %.0f  max %d, requests moved: %d",
+                        detectionTimes.size(), detectionTimes.mean(), detectionTimes.percentile(100), requestsMoved));
+            }
+            return sb.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+public class ZoningDispatchStrategy implements DispatchStrategy {
+    private static final long OUT_OF_ZONE_PENALTY_STOPS = 10;
+
+    private final DispatchStrategy baseStrategy;
+    private final int numberOfFloors;
+    private final int numberOfZones;
+
+    public ZoningDispatchStrategy(int numberOfFloors, int numberOfZones) {
+        this(new EtaDispatchStrategy(), numberOfFloors, numberOfZones);
+    }
+
+    public ZoningDispatchStrategy(DispatchStrategy baseStrategy, int numberOfFloors, int numberOfZones) {
+        if (numberOfZones < 1 || numberOfZones > numberOfFloors) {
+            throw new IllegalArgumentException("Zone count must be between 1 and " + numberOfFloors + ": " + numberOfZones);
+        }
+        this.baseStrategy = baseStrategy;
+        this.numberOfFloors = numberOfFloors;
+        this.numberOfZones = numberOfZones;
+    }
+
+    @Override
+    public long cost(ElevatorState state, PassengerRequest request) {
+        long cost = baseStrategy.cost(state, request);
+
+        int destinationFloor = (request.getDirection() == Direction.UP) ? request.getToFloor() : request.getFromFloor();
+        if (zoneOfFloor(destinationFloor) != zoneOfElevator(state.getElevatorId())) {
+            cost += OUT_OF_ZONE_PENALTY_STOPS * baseStrategy.queuedCallPenalty(state);
+        }
+        return cost;
+    }
+
+    @Override
+    public long queuedCallPenalty(ElevatorState state) {
+        return baseStrategy.queuedCallPenalty(state);
+    }
+
+    @Override
+    public String getName() {
+        return "zoning(" + numberOfZones + ")+" + baseStrategy.getName();
+    }
+
+    int zoneOfFloor(int floor) {
+        return (floor - 1) * numberOfZones / numberOfFloors;
+    }
+
+    int zoneOfElevator(int elevatorId) {
+        return (elevatorId - 1) % numberOfZones;
+    }
+}